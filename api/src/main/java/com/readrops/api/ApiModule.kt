@@ -54,8 +54,7 @@ val apiModule = module {
 
     single(named("freshrssMoshi")) {
         Moshi.Builder()
-                .add(Types.newParameterizedType(List::class.java, Item::class.java), FreshRSSItemsAdapter())
-                .add(Types.newParameterizedType(List::class.java, String::class.java), FreshRSSItemsIdsAdapter())
+                .add(FreshRSSItemsIds::class.java, FreshRSSItemsIdsAdapter())
                 .add(FreshRSSFeedsAdapter())
                 .add(FreshRSSFoldersAdapter())
                 .add(FreshRSSUserInfoAdapter())
@@ -0,0 +1,98 @@
+package com.readrops.api.localfeed
+
+import androidx.annotation.WorkerThread
+import okhttp3.HttpUrl
+import okhttp3.Response
+import java.io.IOException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Semaphore
+import java.util.concurrent.TimeUnit
+
+/**
+ * Limits the number of simultaneous requests made to the same host and keeps track of
+ * the hosts asking us to slow down (429 and 503 codes with a Retry-After header).
+ * Requests to other hosts are not affected.
+ */
+class HostRequestScheduler(private val maxRequestsPerHost: Int = MAX_REQUESTS_PER_HOST,
+                           private val maxRetryDelay: Long = MAX_RETRY_DELAY) {
+
+    private class HostState(permits: Int) {
+        val semaphore = Semaphore(permits, true)
+
+        @Volatile
+        var blockedUntil = 0L
+    }
+
+    private val hosts = ConcurrentHashMap<String, HostState>()
+
+    /**
+     * Execute [call] once the host of [url] accepts a new request.
+     * If the host answers with a Retry-After header and asks to wait less than [maxRetryDelay] ms,
+     * the request is retried once, otherwise the throttled response is returned.
+     * @throws IOException if the host is throttled for more than [maxRetryDelay] ms
+     */
+    @Throws(IOException::class)
+    @WorkerThread
+    fun execute(url: HttpUrl, call: () -> Response): Response {
+        val state = hosts.getOrPut(url.host) { HostState(maxRequestsPerHost) }
+        var retried = false
+
+        while (true) {
+            waitIfBlocked(url.host, state)
+
+            val response = state.semaphore.acquireAndRun(call)
+
+            if (response.code != HTTP_TOO_MANY_REQUESTS && response.code != HTTP_UNAVAILABLE)
+                return response
+
+            val retryDelay = parseRetryAfter(response)
+                    ?: return response
+            state.blockedUntil = maxOf(state.blockedUntil, System.currentTimeMillis() + retryDelay)
+
+            if (retried || retryDelay > maxRetryDelay) return response
+
+            response.close()
+            retried = true
+        }
+    }
+
+    private fun waitIfBlocked(host: String, state: HostState) {
+        val delay = state.blockedUntil - System.currentTimeMillis()
+
+        if (delay > maxRetryDelay)
+            throw IOException("$host is throttled for ${TimeUnit.MILLISECONDS.toSeconds(delay)} seconds")
+        else if (delay > 0)
+            Thread.sleep(delay)
+    }
+
+    private fun Semaphore.acquireAndRun(call: () -> Response): Response {
+        acquire()
+        try {
+            return call()
+        } finally {
+            release()
+        }
+    }
+
+    /**
+     * @return the delay in ms asked by the Retry-After header, which can be a number of seconds or a date
+     */
+    private fun parseRetryAfter(response: Response): Long? {
+        val header = response.header(RETRY_AFTER_HEADER) ?: return null
+
+        header.trim().toLongOrNull()?.let { return TimeUnit.SECONDS.toMillis(maxOf(it, 0)) }
+
+        return response.headers.getDate(RETRY_AFTER_HEADER)
+                ?.let { maxOf(it.time - System.currentTimeMillis(), 0) }
+    }
+
+    companion object {
+        const val RETRY_AFTER_HEADER = "Retry-After"
+
+        const val MAX_REQUESTS_PER_HOST = 2
+        const val MAX_RETRY_DELAY = 10_000L // ms
+
+        private const val HTTP_TOO_MANY_REQUESTS = 429
+        private const val HTTP_UNAVAILABLE = 503
+    }
+}
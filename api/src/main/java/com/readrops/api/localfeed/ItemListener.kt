@@ -0,0 +1,24 @@
+package com.readrops.api.localfeed
+
+import com.readrops.db.entities.Item
+
+/**
+ * Receives the items of a local feed as soon as they are parsed
+ */
+fun interface ItemListener {
+
+    /**
+     * @param item parsed item, it will be part of the parsing result
+     * @return true to continue parsing, false to stop parsing the feed just after this item
+     */
+    fun onItem(item: Item): Boolean
+}
+
+/**
+ * Thrown by feed adapters to abort the parsing when an [ItemListener] asks to stop it
+ */
+internal class ParsingStoppedException : RuntimeException()
+
+internal fun ItemListener?.notifyItem(item: Item) {
+    if (this != null && !onItem(item)) throw ParsingStoppedException()
+}
@@ -17,31 +17,34 @@ import okhttp3.Headers
 import okhttp3.OkHttpClient
 import okhttp3.Request
 import okhttp3.Response
-import okio.Buffer
 import org.koin.core.component.KoinComponent
 import org.koin.core.component.get
 import java.io.IOException
 import java.lang.Exception
 import java.net.HttpURLConnection
 
-class LocalRSSDataSource(private val httpClient: OkHttpClient) : KoinComponent {
+class LocalRSSDataSource(private val httpClient: OkHttpClient,
+                         private val requestScheduler: HostRequestScheduler = HostRequestScheduler()) : KoinComponent {
 
     /**
      * Query RSS url
      * @param url url to query
      * @param headers request headers
+     * @param itemListener notified of each parsed item, it can stop the parsing and the download of the feed
      * @return a Feed object with its items
      */
     @Throws(ParseException::class, UnknownFormatException::class, NetworkErrorException::class, IOException::class)
     @WorkerThread
-    fun queryRSSResource(url: String, headers: Headers?): Pair<Feed, List<Item>>? {
+    @JvmOverloads
+    fun queryRSSResource(url: String, headers: Headers?, itemListener: ItemListener? = null): Pair<Feed, List<Item>>? {
         get<AuthInterceptor>().credentials = null
         val response = queryUrl(url, headers)
 
         return when {
             response.isSuccessful -> {
-                val pair = parseResponse(response, url)
+                val pair = parseResponse(response, url, itemListener)
 
+                // the body may not have been fully read if the parsing was stopped
                 response.body?.close()
                 pair
             }
@@ -90,11 +93,13 @@ class LocalRSSDataSource(private val httpClient: OkHttpClient) : KoinComponent {
     private fun queryUrl(url: String, headers: Headers?): Response {
         val requestBuilder = Request.Builder().url(url)
         headers?.let { requestBuilder.headers(it) }
+        val request = requestBuilder.build()
 
-        return httpClient.newCall(requestBuilder.build()).execute()
+        // execute() calls are not limited by the OkHttp dispatcher, so we limit them per host ourselves
+        return requestScheduler.execute(request.url) { httpClient.newCall(request).execute() }
     }
 
-    private fun parseResponse(response: Response, url: String): Pair<Feed, List<Item>> {
+    private fun parseResponse(response: Response, url: String, itemListener: ItemListener?): Pair<Feed, List<Item>> {
         val header = response.header(ApiUtils.CONTENT_TYPE_HEADER)
                 ?: throw UnknownFormatException("Unable to get $url content-type")
 
@@ -126,17 +131,24 @@ class LocalRSSDataSource(private val httpClient: OkHttpClient) : KoinComponent {
         // if we can't guess type even with the content, we are unable to go further
         if (type == LocalRSSHelper.RSSType.UNKNOWN) throw UnknownFormatException("Unable to guess $url RSS type")
 
-        val pair = parseFeed(rootKonsumer ?: konsumer, type, response)
+        var parsingStopped = false
+        val listener = itemListener?.let {
+            ItemListener { item -> it.onItem(item).also { continueParsing -> parsingStopped = !continueParsing } }
+        }
+
+        val pair = parseFeed(rootKonsumer ?: konsumer, type, response, listener)
 
-        rootKonsumer?.finish()
+        // finishing the root element would read the rest of the document
+        if (!parsingStopped) rootKonsumer?.finish()
         konsumer?.close()
 
         return pair
     }
 
-    private fun parseFeed(konsumer: Konsumer?, type: LocalRSSHelper.RSSType, response: Response): Pair<Feed, List<Item>> {
+    private fun parseFeed(konsumer: Konsumer?, type: LocalRSSHelper.RSSType, response: Response,
+                          itemListener: ItemListener?): Pair<Feed, List<Item>> {
         val pair = if (type != LocalRSSHelper.RSSType.JSONFEED) {
-            val adapter = XmlAdapter.xmlFeedAdapterFactory(type)
+            val adapter = XmlAdapter.xmlFeedAdapterFactory(type, itemListener)
 
             adapter.fromXml(konsumer!!)
         } else {
@@ -144,11 +156,12 @@ class LocalRSSDataSource(private val httpClient: OkHttpClient) : KoinComponent {
                     Types.newParameterizedType(List::class.java, Item::class.java))
 
             val adapter = Moshi.Builder()
-                    .add(pairType, JSONFeedAdapter())
+                    .add(pairType, JSONFeedAdapter(itemListener))
                     .build()
                     .adapter<Pair<Feed, List<Item>>>(pairType)
 
-            adapter.fromJson(Buffer().readFrom(response.body!!.byteStream()))!!
+            // read the body as a stream so the download can stop with the parsing
+            adapter.fromJson(response.body!!.source())!!
         }
 
         handleSpecialCases(pair.first, type, response)
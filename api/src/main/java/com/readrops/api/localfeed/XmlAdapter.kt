@@ -12,10 +12,11 @@ interface XmlAdapter<T> {
     fun fromXml(konsumer: Konsumer): T
 
     companion object {
-        fun xmlFeedAdapterFactory(type: LocalRSSHelper.RSSType): XmlAdapter<Pair<Feed, List<Item>>> = when (type) {
-            LocalRSSHelper.RSSType.RSS_1 -> RSS1FeedAdapter()
-            LocalRSSHelper.RSSType.RSS_2 -> RSS2FeedAdapter()
-            LocalRSSHelper.RSSType.ATOM -> ATOMFeedAdapter()
+        fun xmlFeedAdapterFactory(type: LocalRSSHelper.RSSType,
+                                  itemListener: ItemListener? = null): XmlAdapter<Pair<Feed, List<Item>>> = when (type) {
+            LocalRSSHelper.RSSType.RSS_1 -> RSS1FeedAdapter(itemListener)
+            LocalRSSHelper.RSSType.RSS_2 -> RSS2FeedAdapter(itemListener)
+            LocalRSSHelper.RSSType.ATOM -> ATOMFeedAdapter(itemListener)
             else -> throw IllegalArgumentException("Unknown RSS type : $type")
         }
 
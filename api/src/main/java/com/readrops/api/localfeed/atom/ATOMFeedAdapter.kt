@@ -4,7 +4,10 @@ import com.gitlab.mvysny.konsumexml.Konsumer
 import com.gitlab.mvysny.konsumexml.Names
 import com.gitlab.mvysny.konsumexml.allChildrenAutoIgnore
 import com.readrops.api.localfeed.LocalRSSHelper
+import com.readrops.api.localfeed.ItemListener
+import com.readrops.api.localfeed.ParsingStoppedException
 import com.readrops.api.localfeed.XmlAdapter
+import com.readrops.api.localfeed.notifyItem
 import com.readrops.api.utils.exceptions.ParseException
 import com.readrops.api.utils.extensions.checkElement
 import com.readrops.api.utils.extensions.nonNullText
@@ -12,7 +15,10 @@ import com.readrops.api.utils.extensions.nullableText
 import com.readrops.db.entities.Feed
 import com.readrops.db.entities.Item
 
-class ATOMFeedAdapter : XmlAdapter<Pair<Feed, List<Item>>> {
+/**
+ * @param itemListener notified of each item as soon as it is parsed, it can stop the parsing
+ */
+class ATOMFeedAdapter(private val itemListener: ItemListener? = null) : XmlAdapter<Pair<Feed, List<Item>>> {
 
     override fun fromXml(konsumer: Konsumer): Pair<Feed, List<Item>> {
         val feed = Feed()
@@ -28,12 +34,19 @@ class ATOMFeedAdapter : XmlAdapter<Pair<Feed, List<Item>>> {
                             "title" -> name = nonNullText()
                             "link" -> parseLink(this@allChildrenAutoIgnore, feed)
                             "subtitle" -> description = nullableText()
-                            "entry" -> items += itemAdapter.fromXml(this@allChildrenAutoIgnore)
+                            "entry" -> itemAdapter.fromXml(this@allChildrenAutoIgnore).let { item ->
+                                // the item stopping the parsing is part of the result
+                                items += item
+                                itemListener.notifyItem(item)
+                            }
                         }
                     }
                 }
             }
 
+            konsumer.close()
+            Pair(feed, items)
+        } catch (e: ParsingStoppedException) {
             konsumer.close()
             Pair(feed, items)
         } catch (e: Exception) {
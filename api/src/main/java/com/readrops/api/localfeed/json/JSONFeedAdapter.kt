@@ -1,5 +1,7 @@
 package com.readrops.api.localfeed.json
 
+import com.readrops.api.localfeed.ItemListener
+import com.readrops.api.localfeed.ParsingStoppedException
 import com.readrops.api.utils.exceptions.ParseException
 import com.readrops.api.utils.extensions.nextNonEmptyString
 import com.readrops.api.utils.extensions.nextNullableString
@@ -7,18 +9,32 @@ import com.readrops.db.entities.Feed
 import com.readrops.db.entities.Item
 import com.squareup.moshi.*
 
-class JSONFeedAdapter : JsonAdapter<Pair<Feed, List<Item>>>() {
+/**
+ * @param itemListener notified of each item as soon as it is parsed, it can stop the parsing
+ */
+class JSONFeedAdapter(private val itemListener: ItemListener? = null) : JsonAdapter<Pair<Feed, List<Item>>>() {
 
     override fun toJson(writer: JsonWriter, value: Pair<Feed, List<Item>>?) {
         TODO("Not yet implemented")
     }
 
-    override fun fromJson(reader: JsonReader): Pair<Feed, List<Item>> = try {
+    override fun fromJson(reader: JsonReader): Pair<Feed, List<Item>> {
         val feed = Feed()
         val items = arrayListOf<Item>()
 
-        val itemAdapter = JSONItemsAdapter()
+        val itemAdapter = JSONItemsAdapter(itemListener)
 
+        return try {
+            parseFeed(reader, feed, items, itemAdapter)
+        } catch (e: ParsingStoppedException) {
+            Pair(feed, items)
+        } catch (e: Exception) {
+            throw ParseException(e.message)
+        }
+    }
+
+    private fun parseFeed(reader: JsonReader, feed: Feed, items: MutableList<Item>,
+                          itemAdapter: JSONItemsAdapter): Pair<Feed, List<Item>> {
         reader.beginObject()
 
         while (reader.hasNext()) {
@@ -28,16 +44,14 @@ class JSONFeedAdapter : JsonAdapter<Pair<Feed, List<Item>>>() {
                     1 -> siteUrl = reader.nextNullableString()
                     2 -> url = reader.nextNullableString()
                     3 -> description = reader.nextNullableString()
-                    4 -> items += itemAdapter.fromJson(reader)
+                    4 -> itemAdapter.fromJson(reader, items)
                     else -> reader.skipValue()
                 }
             }
         }
 
         reader.endObject()
-        Pair(feed, items)
-    } catch (e: Exception) {
-        throw ParseException(e.message)
+        return Pair(feed, items)
     }
 
     companion object {
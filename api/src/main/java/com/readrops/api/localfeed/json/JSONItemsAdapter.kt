@@ -1,6 +1,9 @@
 package com.readrops.api.localfeed.json
 
+import com.readrops.api.localfeed.ItemListener
+import com.readrops.api.localfeed.ParsingStoppedException
 import com.readrops.api.localfeed.XmlAdapter.Companion.AUTHORS_MAX
+import com.readrops.api.localfeed.notifyItem
 import com.readrops.api.utils.DateUtils
 import com.readrops.api.utils.exceptions.ParseException
 import com.readrops.api.utils.extensions.nextNonEmptyString
@@ -11,15 +14,18 @@ import com.squareup.moshi.JsonReader
 import com.squareup.moshi.JsonWriter
 import org.joda.time.LocalDateTime
 
-class JSONItemsAdapter : JsonAdapter<List<Item>>() {
+class JSONItemsAdapter(private val itemListener: ItemListener? = null) : JsonAdapter<List<Item>>() {
 
     override fun toJson(writer: JsonWriter, value: List<Item>?) {
         // not useful
     }
 
-    override fun fromJson(reader: JsonReader): List<Item> = with(reader) {
-        val items = arrayListOf<Item>()
+    override fun fromJson(reader: JsonReader): List<Item> = arrayListOf<Item>().apply { fromJson(reader, this) }
 
+    /**
+     * Parse items into [items], so they are kept if the [itemListener] stops the parsing
+     */
+    fun fromJson(reader: JsonReader, items: MutableList<Item>) = with(reader) {
         try {
             beginArray()
 
@@ -54,10 +60,12 @@ class JSONItemsAdapter : JsonAdapter<List<Item>>() {
 
                 endObject()
                 items += item
+                itemListener.notifyItem(item)
             }
 
             endArray()
-            items
+        } catch (e: ParsingStoppedException) {
+            throw e
         } catch (e: Exception) {
             throw ParseException(e.message)
         }
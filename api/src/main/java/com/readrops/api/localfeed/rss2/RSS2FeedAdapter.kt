@@ -4,16 +4,22 @@ import com.gitlab.mvysny.konsumexml.Konsumer
 import com.gitlab.mvysny.konsumexml.Names
 import com.gitlab.mvysny.konsumexml.allChildrenAutoIgnore
 import com.readrops.api.localfeed.LocalRSSHelper
+import com.readrops.api.localfeed.ItemListener
+import com.readrops.api.localfeed.ParsingStoppedException
 import com.readrops.api.localfeed.XmlAdapter
+import com.readrops.api.localfeed.notifyItem
+import com.readrops.api.utils.ApiUtils
 import com.readrops.api.utils.exceptions.ParseException
 import com.readrops.api.utils.extensions.checkElement
 import com.readrops.api.utils.extensions.nonNullText
 import com.readrops.api.utils.extensions.nullableText
 import com.readrops.db.entities.Feed
 import com.readrops.db.entities.Item
-import org.jsoup.Jsoup
 
-class RSS2FeedAdapter : XmlAdapter<Pair<Feed, List<Item>>> {
+/**
+ * @param itemListener notified of each item as soon as it is parsed, it can stop the parsing
+ */
+class RSS2FeedAdapter(private val itemListener: ItemListener? = null) : XmlAdapter<Pair<Feed, List<Item>>> {
 
     override fun fromXml(konsumer: Konsumer): Pair<Feed, List<Item>> {
         val feed = Feed()
@@ -27,14 +33,18 @@ class RSS2FeedAdapter : XmlAdapter<Pair<Feed, List<Item>>> {
                     allChildrenAutoIgnore(names) {
                         with(feed) {
                             when (tagName) {
-                                "title" -> name = Jsoup.parse(nonNullText()).text()
+                                "title" -> name = ApiUtils.cleanText(nonNullText())
                                 "description" -> description = nullableText()
                                 "link" -> siteUrl = nullableText()
                                 "atom:link" -> {
                                     if (attributes.getValueOrNull("rel") == "self")
                                         url = attributes.getValueOrNull("href")
                                 }
-                                "item" -> items += itemAdapter.fromXml(this@allChildrenAutoIgnore)
+                                "item" -> itemAdapter.fromXml(this@allChildrenAutoIgnore).let { item ->
+                                    // the item stopping the parsing is part of the result
+                                    items += item
+                                    itemListener.notifyItem(item)
+                                }
                                 else -> skipContents()
                             }
                         }
@@ -42,6 +52,9 @@ class RSS2FeedAdapter : XmlAdapter<Pair<Feed, List<Item>>> {
                 }
             }
 
+            konsumer.close()
+            Pair(feed, items)
+        } catch (e: ParsingStoppedException) {
             konsumer.close()
             Pair(feed, items)
         } catch (e: Exception) {
@@ -5,26 +5,39 @@ import androidx.annotation.Nullable;
 
 import com.readrops.api.services.SyncResult;
 import com.readrops.api.services.SyncType;
+import com.readrops.api.services.freshrss.adapters.FreshRSSItemsAdapter;
 import com.readrops.api.services.freshrss.adapters.FreshRSSUserInfo;
 import com.readrops.db.entities.Feed;
 import com.readrops.db.entities.Folder;
 import com.readrops.db.entities.Item;
+import com.squareup.moshi.JsonReader;
 
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 
 import io.reactivex.Completable;
+import io.reactivex.Flowable;
 import io.reactivex.Single;
+import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
 
 public class FreshRSSDataSource {
 
-    private static final int MAX_ITEMS = 2500;
-    private static final int MAX_STARRED_ITEMS = 1000;
+    private static final int ITEMS_PAGE_SIZE = 1000;
+    private static final int ITEMS_IDS_PAGE_SIZE = 2500;
+    private static final int ITEMS_BATCH_SIZE = 100;
+
+    private static final int ITEMS_STATE_CHUNK_SIZE = 250;
+    private static final int MAX_CONCURRENT_STATE_PUSHES = 2;
+    private static final int STATE_PUSH_RETRIES = 2;
 
     public static final String GOOGLE_READ = "user/-/state/com.google/read";
     public static final String GOOGLE_UNREAD = "user/-/state/com.google/unread";
@@ -82,42 +95,89 @@ public class FreshRSSDataSource {
     }
 
     /**
-     * Synchronize feeds, folders, items and push read/unread items
+     * Push read/unread and starred/unstarred items by chunks of ids, a few chunks at a time.
+     * A chunk still failing once retried is skipped, its changes are left to the next sync
+     *
+     * @param syncData data containing items to mark
+     * @param token    token for modifications
+     * @return the items ids which were pushed, as sync data
+     */
+    public Single<FreshRSSSyncData> pushItemsStates(@NonNull FreshRSSSyncData syncData, @NonNull String token) {
+        return Single.defer(() -> {
+            FreshRSSSyncData pushedData = new FreshRSSSyncData();
+            pushedData.setLastModified(syncData.getLastModified());
+            pushedData.setReadItemsIds(Collections.synchronizedList(new ArrayList<>()));
+            pushedData.setUnreadItemsIds(Collections.synchronizedList(new ArrayList<>()));
+            pushedData.setStarredItemsIds(Collections.synchronizedList(new ArrayList<>()));
+            pushedData.setUnstarredItemsIds(Collections.synchronizedList(new ArrayList<>()));
+
+            List<Completable> pushes = new ArrayList<>();
+            addItemsStatePushes(pushes, syncData.getReadItemsIds(), pushedData.getReadItemsIds(),
+                    chunk -> setItemsReadState(true, chunk, token));
+            addItemsStatePushes(pushes, syncData.getUnreadItemsIds(), pushedData.getUnreadItemsIds(),
+                    chunk -> setItemsReadState(false, chunk, token));
+            addItemsStatePushes(pushes, syncData.getStarredItemsIds(), pushedData.getStarredItemsIds(),
+                    chunk -> setItemsStarState(true, chunk, token));
+            addItemsStatePushes(pushes, syncData.getUnstarredItemsIds(), pushedData.getUnstarredItemsIds(),
+                    chunk -> setItemsStarState(false, chunk, token));
+
+            return Completable.merge(Flowable.fromIterable(pushes), MAX_CONCURRENT_STATE_PUSHES)
+                    .toSingleDefault(pushedData);
+        });
+    }
+
+    /**
+     * Synchronize feeds, folders and items ids, local items states must have been pushed with {@link #pushItemsStates} before.
+     * Items are not part of the result, they are fetched afterwards with {@link #syncItems}
      *
-     * @param syncType   INITIAL or CLASSIC
-     * @param syncData   data to sync (read/unread items ids, lastModified timestamp)
-     * @param writeToken token for making modifications on the server
+     * @param syncType INITIAL or CLASSIC
+     * @param syncData data to sync (oldest item time, read items ids are only fetched after it)
      * @return the result of the synchronization
      */
-    public Single<SyncResult> sync(@NonNull SyncType syncType, @NonNull FreshRSSSyncData syncData, @NonNull String writeToken) {
+    public Single<SyncResult> sync(@NonNull SyncType syncType, @NonNull FreshRSSSyncData syncData) {
         if (syncType == SyncType.INITIAL_SYNC) {
-            return Single.zip(setItemsReadState(syncData, writeToken).toSingleDefault(""),
-                    setItemsStarState(syncData, writeToken).toSingleDefault(""),
-                    getFolders(),
+            return Single.zip(getFolders(),
                     getFeeds(),
-                    getItems(Arrays.asList(GOOGLE_READ, GOOGLE_STARRED), MAX_ITEMS, null),
-                    getItemsIds(GOOGLE_READ, GOOGLE_READING_LIST, MAX_ITEMS), // unread items ids
-                    getItemsIds(null, GOOGLE_STARRED, MAX_STARRED_ITEMS), // starred items ids
-                    getStarredItems(MAX_STARRED_ITEMS),
-                    (readState, starState, folders, feeds, items, unreadItemsIds, starredItemsIds, starredItems) ->
-                            new SyncResult(items, starredItems, feeds, folders, unreadItemsIds, Collections.emptyList(), starredItemsIds, false)
+                    getItemsIds(GOOGLE_READ, GOOGLE_READING_LIST, null), // unread items ids
+                    getItemsIds(null, GOOGLE_STARRED, null), // starred items ids
+                    (folders, feeds, unreadItemsIds, starredItemsIds) ->
+                            new SyncResult(new ArrayList<>(), Collections.emptyList(), feeds, folders, unreadItemsIds, Collections.emptyList(), starredItemsIds, false)
             );
         } else {
-            return Single.zip(setItemsReadState(syncData, writeToken).toSingleDefault(""),
-                    setItemsStarState(syncData, writeToken).toSingleDefault(""),
-                    getFolders(),
+            return Single.zip(getFolders(),
                     getFeeds(),
-                    getItems(null, MAX_ITEMS, syncData.getLastModified()),
-                    getItemsIds(GOOGLE_READ, GOOGLE_READING_LIST, MAX_ITEMS), // unread items ids
-                    getItemsIds(GOOGLE_UNREAD, GOOGLE_READING_LIST, MAX_ITEMS), // read items ids
-                    getItemsIds(null, GOOGLE_STARRED, MAX_STARRED_ITEMS), // starred items ids
-                    (readState, starState, folders, feeds, items, unreadItemsIds, readItemsIds, starredItemsIds) ->
-                            new SyncResult(items, Collections.emptyList(), feeds, folders, unreadItemsIds, readItemsIds, starredItemsIds, false)
+                    getItemsIds(GOOGLE_READ, GOOGLE_READING_LIST, null), // unread items ids
+                    // read items ids, the whole read history isn't needed, only the states of stored items
+                    getItemsIds(GOOGLE_UNREAD, GOOGLE_READING_LIST, syncData.getOldestItemTime()),
+                    getItemsIds(null, GOOGLE_STARRED, null), // starred items ids
+                    (folders, feeds, unreadItemsIds, readItemsIds, starredItemsIds) ->
+                            new SyncResult(new ArrayList<>(), Collections.emptyList(), feeds, folders, unreadItemsIds, readItemsIds, starredItemsIds, false)
 
             );
         }
     }
 
+    /**
+     * Fetch the items to synchronize, then the starred items on initial sync.
+     * The streams are read page after page, each page is handed to the consumers by batches while it is read,
+     * so at most one batch of items is kept in memory whatever the number of items
+     *
+     * @param syncType             INITIAL or CLASSIC
+     * @param syncData             data to sync (lastModified timestamp)
+     * @param itemsConsumer        called with each batch of items
+     * @param starredItemsConsumer called with each batch of starred items
+     * @return Completable
+     */
+    public Completable syncItems(@NonNull SyncType syncType, @NonNull FreshRSSSyncData syncData,
+                                 @NonNull Consumer<List<Item>> itemsConsumer, @NonNull Consumer<List<Item>> starredItemsConsumer) {
+        if (syncType == SyncType.INITIAL_SYNC) {
+            return getItems(Arrays.asList(GOOGLE_READ, GOOGLE_STARRED), null, itemsConsumer)
+                    .andThen(getStarredItems(starredItemsConsumer));
+        } else {
+            return getItems(null, syncData.getLastModified(), itemsConsumer);
+        }
+    }
+
     /**
      * Fetch the feeds folders
      *
@@ -137,31 +197,45 @@ public class FreshRSSDataSource {
     }
 
     /**
-     * Fetch the items
+     * Fetch all the items, page after page
      *
      * @param excludeTargets type of items to exclude (read items and starred items)
-     * @param max            max number of items to fetch
      * @param lastModified   fetch only items created after this timestamp
-     * @return the items
+     * @param consumer       called with each batch of items while the pages are read
+     * @return Completable
      */
-    public Single<List<Item>> getItems(@Nullable List<String> excludeTargets, int max, @Nullable Long lastModified) {
-        return api.getItems(excludeTargets, max, lastModified);
+    public Completable getItems(@Nullable List<String> excludeTargets, @Nullable Long lastModified,
+                                @NonNull Consumer<List<Item>> consumer) {
+        return getItemsPages(continuation -> api.getItems(excludeTargets, ITEMS_PAGE_SIZE, lastModified, continuation),
+                null, consumer);
     }
 
     /**
-     * Fetch starred items
+     * Fetch all starred items, page after page
      *
-     * @param max max number of items to fetch
-     * @return items
+     * @param consumer called with each batch of items while the pages are read
+     * @return Completable
      */
-    public Single<List<Item>> getStarredItems(int max) {
-        return api.getStarredItems(max);
+    public Completable getStarredItems(@NonNull Consumer<List<Item>> consumer) {
+        return getItemsPages(continuation -> api.getStarredItems(ITEMS_PAGE_SIZE, continuation), null, consumer);
     }
 
-    public Single<List<String>> getItemsIds(String excludeTarget, String includeTarget, int max) {
-        return api.getItemsIds(excludeTarget, includeTarget, max);
-    }
+    /**
+     * Fetch all items ids, page after page
+     *
+     * @param excludeTarget type of items to exclude
+     * @param includeTarget type of items to include
+     * @param since         fetch only ids of items fetched by the server after this timestamp
+     * @return the items ids
+     */
+    public Single<List<String>> getItemsIds(@Nullable String excludeTarget, @Nullable String includeTarget, @Nullable Long since) {
+        return Single.defer(() -> {
+            List<String> ids = new ArrayList<>();
 
+            return getItemsIdsPages(excludeTarget, includeTarget, since, null, ids)
+                    .toSingleDefault(ids);
+        });
+    }
 
     /**
      * Mark items read or unread
@@ -265,52 +339,54 @@ public class FreshRSSDataSource {
     }
 
     /**
-     * Set items star state
-     *
-     * @param syncData data containing items to mark
-     * @param token    token for modifications
-     * @return A concatenation of two completable (read and unread completable)
+     * Add a push per chunk of ids, retried on failure. Pushed ids are added to pushedIds,
+     * failing chunks complete anyway so that the other ones are still pushed
      */
-    private Completable setItemsReadState(@NonNull FreshRSSSyncData syncData, @NonNull String token) {
-        Completable readItemsCompletable;
-        if (syncData.getReadItemsIds().isEmpty()) {
-            readItemsCompletable = Completable.complete();
-        } else {
-            readItemsCompletable = setItemsReadState(true, syncData.getReadItemsIds(), token);
-        }
-
-        Completable unreadItemsCompletable;
-        if (syncData.getUnreadItemsIds().isEmpty()) {
-            unreadItemsCompletable = Completable.complete();
-        } else {
-            unreadItemsCompletable = setItemsReadState(false, syncData.getUnreadItemsIds(), token);
+    private void addItemsStatePushes(@NonNull List<Completable> pushes, @NonNull List<String> ids, @NonNull List<String> pushedIds,
+                                     @NonNull Function<List<String>, Completable> push) throws Exception {
+        for (int i = 0; i < ids.size(); i += ITEMS_STATE_CHUNK_SIZE) {
+            List<String> chunk = new ArrayList<>(ids.subList(i, Math.min(i + ITEMS_STATE_CHUNK_SIZE, ids.size())));
+
+            pushes.add(push.apply(chunk)
+                    .subscribeOn(Schedulers.io())
+                    .retry(STATE_PUSH_RETRIES)
+                    .doOnComplete(() -> pushedIds.addAll(chunk))
+                    .onErrorComplete());
         }
-
-        return readItemsCompletable.concatWith(unreadItemsCompletable);
     }
 
     /**
-     * Set items star state
-     *
-     * @param syncData data containing items to mark
-     * @param token    token for modifications
-     * @return A concatenation of two completable (starred and unstarred completable)
+     * Fetch the page following the continuation, the next pages are only requested once the current one is consumed
      */
-    private Completable setItemsStarState(@NonNull FreshRSSSyncData syncData, @NonNull String token) {
-        Completable starredItemsCompletable;
-        if (syncData.getStarredItemsIds().isEmpty()) {
-            starredItemsCompletable = Completable.complete();
-        } else {
-            starredItemsCompletable = setItemsStarState(true, syncData.getStarredItemsIds(), token);
-        }
+    private Completable getItemsPages(@NonNull Function<String, Single<ResponseBody>> pageCall,
+                                      @Nullable String continuation, @NonNull Consumer<List<Item>> consumer) {
+        return Single.defer(() -> pageCall.apply(continuation))
+                .flatMapCompletable(responseBody -> {
+                    String nextContinuation;
+                    try (JsonReader reader = JsonReader.of(responseBody.source())) {
+                        nextContinuation = new FreshRSSItemsAdapter().fromJson(reader, ITEMS_BATCH_SIZE, consumer);
+                    }
+
+                    return isLastPage(continuation, nextContinuation) ? Completable.complete() :
+                            getItemsPages(pageCall, nextContinuation, consumer);
+                });
+    }
 
-        Completable unstarredItemsCompletable;
-        if (syncData.getUnstarredItemsIds().isEmpty()) {
-            unstarredItemsCompletable = Completable.complete();
-        } else {
-            unstarredItemsCompletable = setItemsStarState(false, syncData.getUnstarredItemsIds(), token);
-        }
+    private Completable getItemsIdsPages(@Nullable String excludeTarget, @Nullable String includeTarget, @Nullable Long since,
+                                         @Nullable String continuation, @NonNull List<String> ids) {
+        return api.getItemsIds(excludeTarget, includeTarget, since, ITEMS_IDS_PAGE_SIZE, continuation)
+                .flatMapCompletable(itemsIds -> {
+                    ids.addAll(itemsIds.getIds());
 
-        return starredItemsCompletable.concatWith(unstarredItemsCompletable);
+                    return isLastPage(continuation, itemsIds.getContinuation()) ? Completable.complete() :
+                            getItemsIdsPages(excludeTarget, includeTarget, since, itemsIds.getContinuation(), ids);
+                });
+    }
+
+    /**
+     * Some servers return the same continuation again on the last page
+     */
+    private boolean isLastPage(@Nullable String continuation, @Nullable String nextContinuation) {
+        return nextContinuation == null || nextContinuation.equals(continuation);
     }
 }
@@ -1,9 +1,9 @@
 package com.readrops.api.services.freshrss
 
+import com.readrops.api.services.freshrss.adapters.FreshRSSItemsIds
 import com.readrops.api.services.freshrss.adapters.FreshRSSUserInfo
 import com.readrops.db.entities.Feed
 import com.readrops.db.entities.Folder
-import com.readrops.db.entities.Item
 import io.reactivex.Completable
 import io.reactivex.Single
 import okhttp3.RequestBody
@@ -27,16 +27,19 @@ interface FreshRSSService {
     @get:GET("reader/api/0/tag/list?output=json")
     val folders: Single<List<Folder>>
 
+    @Streaming
     @GET("reader/api/0/stream/contents/user/-/state/com.google/reading-list")
     fun getItems(@Query("xt") excludeTarget: List<String>?, @Query("n") max: Int,
-                 @Query("ot") lastModified: Long?): Single<List<Item>>
+                 @Query("ot") lastModified: Long?, @Query("c") continuation: String?): Single<ResponseBody>
 
+    @Streaming
     @GET("reader/api/0/stream/contents/user/-/state/com.google/starred")
-    fun getStarredItems(@Query("n") max: Int): Single<List<Item>>
+    fun getStarredItems(@Query("n") max: Int, @Query("c") continuation: String?): Single<ResponseBody>
 
     @GET("reader/api/0/stream/items/ids")
     fun getItemsIds(@Query("xt") excludeTarget: String?, @Query("s") includeTarget: String?,
-                    @Query("n") max: Int): Single<List<String>>
+                    @Query("ot") since: Long?, @Query("n") max: Int,
+                    @Query("c") continuation: String?): Single<FreshRSSItemsIds>
 
     @FormUrlEncoded
     @POST("reader/api/0/edit-tag")
@@ -6,4 +6,5 @@ data class FreshRSSSyncData(
         var unreadItemsIds: List<String> = listOf(),
         var starredItemsIds: List<String> = listOf(),
         var unstarredItemsIds: List<String> = listOf(),
+        var oldestItemTime: Long = 0,
 )
\ No newline at end of file
@@ -8,8 +8,11 @@ import com.readrops.api.utils.extensions.nextNonEmptyString
 import com.readrops.api.utils.extensions.nextNullableString
 import com.readrops.db.entities.Item
 import com.squareup.moshi.JsonAdapter
+import com.squareup.moshi.JsonDataException
+import com.squareup.moshi.JsonEncodingException
 import com.squareup.moshi.JsonReader
 import com.squareup.moshi.JsonWriter
+import io.reactivex.functions.Consumer
 import org.joda.time.DateTimeZone
 import org.joda.time.LocalDateTime
 
@@ -25,7 +28,7 @@ class FreshRSSItemsAdapter : JsonAdapter<List<Item>>() {
         return try {
             reader.beginObject()
             while (reader.hasNext()) {
-                if (reader.nextName() == "items") parseItems(reader, items) else reader.skipValue()
+                if (reader.nextName() == "items") parseItems(reader) { items += it } else reader.skipValue()
             }
 
             reader.endObject()
@@ -36,7 +39,44 @@ class FreshRSSItemsAdapter : JsonAdapter<List<Item>>() {
         }
     }
 
-    private fun parseItems(reader: JsonReader, items: MutableList<Item>) {
+    /**
+     * Parse the items while the stream is read, without keeping them:
+     * they are handed to [consumer] by batches of [batchSize] items, the last batch may be smaller.
+     * Errors thrown by [consumer] are not wrapped in a [ParseException].
+     *
+     * @return the continuation to fetch the next page, null on the last page
+     */
+    fun fromJson(reader: JsonReader, batchSize: Int, consumer: Consumer<List<Item>>): String? {
+        var batch = ArrayList<Item>(batchSize)
+        var continuation: String? = null
+
+        try {
+            reader.beginObject()
+            while (reader.hasNext()) {
+                when (reader.nextName()) {
+                    "items" -> parseItems(reader) {
+                        batch.add(it)
+
+                        if (batch.size == batchSize) {
+                            consumer.accept(batch)
+                            batch = ArrayList(batchSize)
+                        }
+                    }
+                    "continuation" -> continuation = reader.nextNullableString()
+                    else -> reader.skipValue()
+                }
+            }
+
+            reader.endObject()
+        } catch (e: Exception) {
+            throw if (e is JsonDataException || e is JsonEncodingException) ParseException(e.message) else e
+        }
+
+        if (batch.isNotEmpty()) consumer.accept(batch)
+        return continuation
+    }
+
+    private fun parseItems(reader: JsonReader, onItem: (Item) -> Unit) {
         reader.beginArray()
 
         while (reader.hasNext()) {
@@ -60,8 +100,8 @@ class FreshRSSItemsAdapter : JsonAdapter<List<Item>>() {
                 }
             }
 
-            items += item
             reader.endObject()
+            onItem(item)
         }
 
         reader.endArray()
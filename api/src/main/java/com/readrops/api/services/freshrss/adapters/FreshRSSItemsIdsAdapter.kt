@@ -3,56 +3,70 @@ package com.readrops.api.services.freshrss.adapters
 import android.annotation.SuppressLint
 import com.readrops.api.utils.exceptions.ParseException
 import com.readrops.api.utils.extensions.nextNonEmptyString
+import com.readrops.api.utils.extensions.nextNullableString
 import com.squareup.moshi.JsonAdapter
 import com.squareup.moshi.JsonReader
 import com.squareup.moshi.JsonWriter
 
-class FreshRSSItemsIdsAdapter : JsonAdapter<List<String>>() {
+/**
+ * A page of items ids, [continuation] is null on the last page
+ */
+data class FreshRSSItemsIds(
+        val ids: List<String>,
+        val continuation: String?,
+)
 
-    override fun toJson(writer: JsonWriter, value: List<String>?) {
+class FreshRSSItemsIdsAdapter : JsonAdapter<FreshRSSItemsIds>() {
+
+    override fun toJson(writer: JsonWriter, value: FreshRSSItemsIds?) {
         // not useful here
     }
 
     @SuppressLint("CheckResult")
-    override fun fromJson(reader: JsonReader): List<String>? = with(reader) {
+    override fun fromJson(reader: JsonReader): FreshRSSItemsIds? = with(reader) {
         val ids = arrayListOf<String>()
+        var continuation: String? = null
 
         return try {
             beginObject()
-            nextName()
-            beginArray()
 
             while (hasNext()) {
-                beginObject()
-
                 when (nextName()) {
-                    "id" -> {
-                        val value = nextNonEmptyString()
-                        ids += "tag:google.com,2005:reader/item/${
-                            value.toLong()
-                                    .toString(16).padStart(value.length, '0')
-                        }"
-                    }
+                    "itemRefs" -> parseIds(reader, ids)
+                    "continuation" -> continuation = nextNullableString()
                     else -> skipValue()
                 }
-
-                endObject()
-            }
-
-            endArray()
-
-            // skip continuation
-            if (hasNext()) {
-                skipName()
-                skipValue()
             }
 
             endObject()
 
-            ids
+            FreshRSSItemsIds(ids, continuation)
         } catch (e: Exception) {
             throw ParseException(e.message)
         }
     }
 
-}
\ No newline at end of file
+    private fun parseIds(reader: JsonReader, ids: MutableList<String>) = with(reader) {
+        beginArray()
+
+        while (hasNext()) {
+            beginObject()
+
+            when (nextName()) {
+                "id" -> {
+                    val value = nextNonEmptyString()
+                    ids += "tag:google.com,2005:reader/item/${
+                        value.toLong()
+                                .toString(16).padStart(value.length, '0')
+                    }"
+                }
+                else -> skipValue()
+            }
+
+            endObject()
+        }
+
+        endArray()
+    }
+
+}
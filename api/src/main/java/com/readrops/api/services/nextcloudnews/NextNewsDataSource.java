@@ -25,8 +25,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
+import retrofit2.Call;
 import retrofit2.Response;
 
 public class NextNewsDataSource {
@@ -89,71 +92,79 @@ public class NextNewsDataSource {
         return syncResult;
     }
 
+    /**
+     * Feeds, folders, unread items and starred items are fetched concurrently
+     */
     private void initialSync(SyncResult syncResult) throws IOException {
-        getFeedsAndFolders(syncResult);
+        await(Single.zip(execute(api.getFeeds()),
+                execute(api.getFolders()),
+                execute(api.getItems(ItemQueryType.ALL.value, false, MAX_ITEMS)), // unread items
+                execute(api.getItems(ItemQueryType.STARRED.value, true, MAX_STARRED_ITEMS)),
+                (feedsResponse, foldersResponse, itemsResponse, starredItemsResponse) -> {
+                    setFeedsAndFolders(feedsResponse, foldersResponse, syncResult);
 
-        // unread items
-        Response<List<Item>> itemsResponse = api.getItems(ItemQueryType.ALL.value, false, MAX_ITEMS).execute();
-        List<Item> itemList = itemsResponse.body();
+                    if (!itemsResponse.isSuccessful() || !starredItemsResponse.isSuccessful())
+                        syncResult.setError(true);
 
-        if (!itemsResponse.isSuccessful())
-            syncResult.setError(true);
-
-        if (itemList != null)
-            syncResult.setItems(itemList);
-
-        // starred items
-        Response<List<Item>> starredItemsResponse = api.getItems(ItemQueryType.STARRED.value, true, MAX_STARRED_ITEMS).execute();
-        List<Item> starredItems = starredItemsResponse.body();
+                    if (itemsResponse.body() != null)
+                        syncResult.setItems(itemsResponse.body());
 
-        if (!itemsResponse.isSuccessful())
-            syncResult.setError(true);
+                    if (starredItemsResponse.body() != null)
+                        syncResult.setStarredItems(starredItemsResponse.body());
 
-        if (itemList != null)
-            syncResult.setStarredItems(starredItems);
+                    return syncResult;
+                }));
     }
 
+    /**
+     * Modified items are pushed concurrently, then new items are fetched so that they come with the pushed states.
+     * Feeds and folders are fetched meanwhile
+     */
     private void classicSync(SyncResult syncResult, NextNewsSyncData data) throws IOException {
-        putModifiedItems(data, syncResult);
-        getFeedsAndFolders(syncResult);
+        Single<Response<List<Item>>> itemsRequest = putModifiedItems(data)
+                .flatMap(statesPushed -> {
+                    if (!statesPushed)
+                        syncResult.setError(true);
 
-        Response<List<Item>> itemsResponse = api.getNewItems(data.getLastModified(), ItemQueryType.ALL.value).execute();
-        List<Item> itemList = itemsResponse.body();
+                    return execute(api.getNewItems(data.getLastModified(), ItemQueryType.ALL.value));
+                });
 
-        if (!itemsResponse.isSuccessful())
-            syncResult.setError(true);
+        await(Single.zip(execute(api.getFeeds()),
+                execute(api.getFolders()),
+                itemsRequest,
+                (feedsResponse, foldersResponse, itemsResponse) -> {
+                    setFeedsAndFolders(feedsResponse, foldersResponse, syncResult);
 
-        if (itemList != null)
-            syncResult.setItems(itemList);
-    }
+                    if (!itemsResponse.isSuccessful())
+                        syncResult.setError(true);
 
-    private void getFeedsAndFolders(SyncResult syncResult) throws IOException {
-        Response<List<Feed>> feedResponse = api.getFeeds().execute();
-        List<Feed> feedList = feedResponse.body();
+                    if (itemsResponse.body() != null)
+                        syncResult.setItems(itemsResponse.body());
 
-        if (!feedResponse.isSuccessful())
-            syncResult.setError(true);
-
-        Response<List<Folder>> folderResponse = api.getFolders().execute();
-        List<Folder> folderList = folderResponse.body();
+                    return syncResult;
+                }));
+    }
 
-        if (!folderResponse.isSuccessful())
+    private void setFeedsAndFolders(Response<List<Feed>> feedResponse, Response<List<Folder>> folderResponse, SyncResult syncResult) {
+        if (!feedResponse.isSuccessful() || !folderResponse.isSuccessful())
             syncResult.setError(true);
 
-        if (folderList != null)
-            syncResult.setFolders(folderList);
-
-        if (feedList != null)
-            syncResult.setFeeds(feedList);
+        if (folderResponse.body() != null)
+            syncResult.setFolders(folderResponse.body());
 
+        if (feedResponse.body() != null)
+            syncResult.setFeeds(feedResponse.body());
     }
 
-    private void putModifiedItems(NextNewsSyncData data, SyncResult syncResult) throws IOException {
-        setReadState(data.getReadItems(), syncResult, StateType.READ);
-        setReadState(data.getUnreadItems(), syncResult, StateType.UNREAD);
-
-        setStarState(data.getStarredItems(), syncResult, StateType.STAR);
-        setStarState(data.getUnstarredItems(), syncResult, StateType.UNSTAR);
+    /**
+     * @return true if all the states were pushed
+     */
+    private Single<Boolean> putModifiedItems(NextNewsSyncData data) {
+        return Single.zip(setReadState(data.getReadItems(), StateType.READ),
+                setReadState(data.getUnreadItems(), StateType.UNREAD),
+                setStarState(data.getStarredItems(), StateType.STAR),
+                setStarState(data.getUnstarredItems(), StateType.UNSTAR),
+                (read, unread, starred, unstarred) -> read && unread && starred && unstarred);
     }
 
     public List<Folder> createFolder(Folder folder) throws IOException, UnknownFormatException, ConflictException {
@@ -244,35 +255,53 @@ public class NextNewsDataSource {
             return false;
     }
 
-    private void setReadState(List<String> items, SyncResult syncResult, StateType stateType) throws IOException {
-        if (!items.isEmpty()) {
-            Map<String, List<String>> itemIdsMap = new HashMap<>();
-            itemIdsMap.put("items", items);
+    private Single<Boolean> setReadState(List<String> items, StateType stateType) {
+        if (items.isEmpty())
+            return Single.just(true);
 
-            Response readItemsResponse = api.setReadState(stateType.name().toLowerCase(),
-                    itemIdsMap).execute();
+        Map<String, List<String>> itemIdsMap = new HashMap<>();
+        itemIdsMap.put("items", items);
 
-            if (!readItemsResponse.isSuccessful())
-                syncResult.setError(true);
-        }
+        return execute(api.setReadState(stateType.name().toLowerCase(), itemIdsMap))
+                .map(Response::isSuccessful);
     }
 
-    private void setStarState(List<StarItem> items, SyncResult syncResult, StateType stateType) throws IOException {
-        if (!items.isEmpty()) {
-            List<Map<String, String>> body = new ArrayList<>();
-            for (StarItem item : items) {
-                Map<String, String> itemBody = new HashMap<>();
-                itemBody.put("feedId", item.getFeedRemoteId());
-                itemBody.put("guidHash", item.getGuidHash());
+    private Single<Boolean> setStarState(List<StarItem> items, StateType stateType) {
+        if (items.isEmpty())
+            return Single.just(true);
 
-                body.add(itemBody);
-            }
+        List<Map<String, String>> body = new ArrayList<>();
+        for (StarItem item : items) {
+            Map<String, String> itemBody = new HashMap<>();
+            itemBody.put("feedId", item.getFeedRemoteId());
+            itemBody.put("guidHash", item.getGuidHash());
 
-            Response response = api.setStarState(stateType.name().toLowerCase(),
-                    Collections.singletonMap("items", body)).execute();
-            if (!response.isSuccessful()) {
-                syncResult.setError(true);
-            }
+            body.add(itemBody);
+        }
+
+        return execute(api.setStarState(stateType.name().toLowerCase(), Collections.singletonMap("items", body)))
+                .map(Response::isSuccessful);
+    }
+
+    /**
+     * Execute the call on its own io thread once subscribed, so that requests combined with zip run concurrently
+     */
+    private static <T> Single<Response<T>> execute(Call<T> call) {
+        return Single.fromCallable(call::execute)
+                .subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Wait for the requests, network errors are thrown as they would be by {@link Call#execute()}
+     */
+    private static <T> T await(Single<T> requests) throws IOException {
+        try {
+            return requests.blockingGet();
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            else
+                throw e;
         }
     }
 
@@ -1,6 +1,5 @@
 package com.readrops.api.utils
 
-import org.jsoup.Jsoup
 import java.util.regex.Pattern
 
 object ApiUtils {
@@ -37,7 +36,8 @@ object ApiUtils {
      * @param text string to clean
      * @return cleaned text
      */
+    @JvmStatic
     fun cleanText(text: String?): String {
-        return Jsoup.parse(text).text().trim()
+        return if (text != null) HtmlTextExtractor.extract(text).trim() else ""
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.readrops.api.utils
 
+import org.joda.time.IllegalFieldValueException
 import org.joda.time.LocalDateTime
 import org.joda.time.format.DateTimeFormat
 import org.joda.time.format.DateTimeFormatterBuilder
@@ -30,27 +31,162 @@ object DateUtils {
      */
     private const val ATOM_JSON_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss"
 
+    private val FORMATTER = DateTimeFormatterBuilder()
+            .appendOptional(DateTimeFormat.forPattern("$RSS_2_BASE_PATTERN ").parser) // with timezone
+            .appendOptional(DateTimeFormat.forPattern(RSS_2_BASE_PATTERN).parser) // no timezone, important order here
+            .appendOptional(DateTimeFormat.forPattern(ATOM_JSON_DATE_FORMAT).parser)
+            .appendOptional(DateTimeFormat.forPattern(GMT_PATTERN).parser)
+            .appendOptional(DateTimeFormat.forPattern(OFFSET_PATTERN).parser)
+            .appendOptional(DateTimeFormat.forPattern(ISO_PATTERN).parser)
+            .appendOptional(DateTimeFormat.forPattern(EDT_PATTERN).parser)
+            .toFormatter()
+            .withLocale(Locale.ENGLISH)
+            .withOffsetParsed()
+
+    private val DAYS_OF_WEEK = arrayOf("Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun")
+
+    private val MONTHS = arrayOf("Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec")
+
+    /**
+     * Timezone names handled by the RSS 2 fast path, others are left to the formatter
+     */
+    private val TIMEZONE_NAMES = arrayOf("GMT", "UTC", "EST", "EDT", "CST", "CDT", "MST", "MDT", "PST", "PDT")
+
+    /**
+     * Parse a date, the timezone is ignored.
+     * The most common RSS 2 and ATOM/JSON shapes are parsed by hand, other ones by the Joda formatter.
+     */
     @JvmStatic
     fun parse(value: String?): LocalDateTime? = if (value == null) {
         null
     } else try {
-        val formatter = DateTimeFormatterBuilder()
-                .appendOptional(DateTimeFormat.forPattern("$RSS_2_BASE_PATTERN ").parser) // with timezone
-                .appendOptional(DateTimeFormat.forPattern(RSS_2_BASE_PATTERN).parser) // no timezone, important order here
-                .appendOptional(DateTimeFormat.forPattern(ATOM_JSON_DATE_FORMAT).parser)
-                .appendOptional(DateTimeFormat.forPattern(GMT_PATTERN).parser)
-                .appendOptional(DateTimeFormat.forPattern(OFFSET_PATTERN).parser)
-                .appendOptional(DateTimeFormat.forPattern(ISO_PATTERN).parser)
-                .appendOptional(DateTimeFormat.forPattern(EDT_PATTERN).parser)
-                .toFormatter()
-                .withLocale(Locale.ENGLISH)
-                .withOffsetParsed()
-
-        formatter.parseLocalDateTime(value)
+        parseRSS2Date(value) ?: parseAtomJsonDate(value) ?: FORMATTER.parseLocalDateTime(value)
     } catch (e: Exception) {
         null
     }
 
+    /**
+     * Fast path for [RSS_2_BASE_PATTERN] dates, optionally followed by an offset or a timezone name
+     * @return the parsed date or null if [value] doesn't have this exact shape
+     */
+    private fun parseRSS2Date(value: String): LocalDateTime? {
+        // Fri, 04 Jan 2019 22:21:46
+        if (value.length < 24 || value[3] != ',' || value[4] != ' ') return null
+        val dayOfWeek = indexOfName(DAYS_OF_WEEK, value, 0)
+
+        val dayLength = if (value[6] == ' ') 1 else 2
+        val day = parseDigits(value, 5, dayLength)
+        var i = 5 + dayLength
+
+        if (value[i] != ' ' || value.length < i + 18) return null
+        val month = indexOfName(MONTHS, value, i + 1)
+        i += 4
+
+        if (value[i] != ' ' || value[i + 5] != ' ' || value[i + 8] != ':' || value[i + 11] != ':') return null
+        val year = parseDigits(value, i + 1, 4)
+        val hour = parseDigits(value, i + 6, 2)
+        val minute = parseDigits(value, i + 9, 2)
+        val second = parseDigits(value, i + 12, 2)
+        i += 14
+
+        if (dayOfWeek == -1 || day == -1 || month == -1 || year == -1 || hour == -1 || minute == -1 || second == -1)
+            return null
+
+        if (i != value.length && (value[i] != ' ' || !isRSS2Timezone(value, i + 1)))
+            return null
+
+        val date = buildDate(year, month + 1, day, hour, minute, second, 0)
+
+        // let the formatter handle inconsistent days of week
+        return if (date?.dayOfWeek == dayOfWeek + 1) date else null
+    }
+
+    /**
+     * Fast path for [ATOM_JSON_DATE_FORMAT] dates, optionally followed by milliseconds and an offset
+     * @return the parsed date or null if [value] doesn't have this exact shape
+     */
+    private fun parseAtomJsonDate(value: String): LocalDateTime? {
+        // 2019-01-04T22:21:46
+        if (value.length < 19 || value[4] != '-' || value[7] != '-' || value[10] != 'T'
+                || value[13] != ':' || value[16] != ':') return null
+
+        val year = parseDigits(value, 0, 4)
+        val month = parseDigits(value, 5, 2)
+        val day = parseDigits(value, 8, 2)
+        val hour = parseDigits(value, 11, 2)
+        val minute = parseDigits(value, 14, 2)
+        val second = parseDigits(value, 17, 2)
+
+        if (year == -1 || month == -1 || day == -1 || hour == -1 || minute == -1 || second == -1)
+            return null
+
+        var i = 19
+        var millis = 0
+
+        // milliseconds are only accepted with an offset
+        if (i < value.length && value[i] == '.') {
+            millis = parseDigits(value, i + 1, 3)
+            i += 4
+
+            if (millis == -1 || i == value.length) return null
+        }
+
+        if (i != value.length && !isOffset(value, i)) return null
+
+        return buildDate(year, month, day, hour, minute, second, millis)
+    }
+
+    /**
+     * @return true if [value] ends at [start] with Z, +hh:mm or +hhmm
+     */
+    private fun isOffset(value: String, start: Int): Boolean {
+        val length = value.length - start
+
+        return when {
+            length == 1 -> value[start] == 'Z'
+            value[start] != '+' && value[start] != '-' -> false
+            length == 5 -> parseDigits(value, start + 1, 4) != -1
+            length == 6 -> value[start + 3] == ':' && parseDigits(value, start + 1, 2) != -1
+                    && parseDigits(value, start + 4, 2) != -1
+            else -> false
+        }
+    }
+
+    private fun isRSS2Timezone(value: String, start: Int): Boolean =
+            (value.length - start == 5 && isOffset(value, start)) ||
+                    (value.length - start == 3 && indexOfName(TIMEZONE_NAMES, value, start) != -1)
+
+    private fun indexOfName(names: Array<String>, value: String, start: Int): Int {
+        for (i in names.indices) {
+            if (value.regionMatches(start, names[i], 0, names[i].length)) return i
+        }
+
+        return -1
+    }
+
+    /**
+     * @return the number made of [count] digits of [value] from [start], or -1 if they are not all digits
+     */
+    private fun parseDigits(value: String, start: Int, count: Int): Int {
+        if (start + count > value.length) return -1
+        var result = 0
+
+        for (i in start until start + count) {
+            val digit = value[i] - '0'
+            if (digit !in 0..9) return -1
+
+            result = result * 10 + digit
+        }
+
+        return result
+    }
+
+    private fun buildDate(year: Int, month: Int, day: Int, hour: Int, minute: Int, second: Int, millis: Int) = try {
+        LocalDateTime(year, month, day, hour, minute, second, millis)
+    } catch (e: IllegalFieldValueException) {
+        null // invalid values are handled by the formatter
+    }
+
     @JvmStatic
     fun formattedDateByLocal(dateTime: LocalDateTime): String {
         return DateTimeFormat.mediumDate()
@@ -0,0 +1,234 @@
+package com.readrops.api.utils
+
+import org.jsoup.Jsoup
+import org.jsoup.parser.Parser
+
+/**
+ * Extract the text of an html fragment without building a DOM.
+ * Tags are stripped, entities decoded and whitespaces collapsed, like [org.jsoup.nodes.Element.text].
+ * Input this extractor can't handle safely (unclosed tags or comments, raw text elements other than
+ * script and style, CDATA sections) is left to Jsoup.
+ */
+object HtmlTextExtractor {
+
+    /**
+     * Tags separating words, as Jsoup considers them as blocks
+     */
+    private val BLOCK_TAGS = hashSetOf("address", "article", "aside", "audio", "blockquote", "body",
+            "br", "canvas", "caption", "center", "col", "colgroup", "dd", "del", "details", "div", "dl",
+            "dt", "fieldset", "figcaption", "figure", "footer", "form", "frameset", "h1", "h2", "h3",
+            "h4", "h5", "h6", "head", "header", "hgroup", "hr", "html", "ins", "li", "link", "main",
+            "math", "menu", "meta", "nav", "ol", "p", "pre", "section", "svg", "table", "tbody", "td",
+            "template", "tfoot", "th", "thead", "tr", "ul", "video")
+
+    /**
+     * Tags whose content is not text
+     */
+    private val SKIPPED_TAGS = hashSetOf("script", "style")
+
+    /**
+     * Tags whose content is parsed as raw text by Jsoup
+     */
+    private val RAW_TEXT_TAGS = hashSetOf("iframe", "noembed", "noframes", "noscript", "plaintext",
+            "textarea", "title", "xmp")
+
+    /**
+     * Maximum length of the entities decoded by hand, from the ampersand to the semicolon
+     */
+    private const val MAX_ENTITY_LENGTH = 10
+
+    @JvmStatic
+    fun extract(html: String): String {
+        val builder = StringBuilder(html.length)
+        return if (extract(html, builder)) builder.toString() else Jsoup.parse(html).text()
+    }
+
+    /**
+     * @return false if [html] must be left to Jsoup
+     */
+    private fun extract(html: String, builder: StringBuilder): Boolean {
+        var separate = false
+        var i = 0
+
+        while (i < html.length) {
+            val tagStart = nextTag(html, i)
+            separate = appendText(html, i, tagStart, builder, separate)
+            if (tagStart == html.length) break
+
+            val next = html[tagStart + 1]
+            if (next == '!' || next == '?') {
+                i = skipDeclaration(html, tagStart) ?: return false
+                continue
+            }
+
+            val closing = next == '/'
+            val nameStart = if (closing) tagStart + 2 else tagStart + 1
+            if (nameStart == html.length || !isAsciiLetter(html[nameStart])) return false
+
+            var nameEnd = nameStart
+            while (nameEnd < html.length && !html[nameEnd].isWhitespace() && html[nameEnd] != '/'
+                    && html[nameEnd] != '>') nameEnd++
+
+            i = tagEnd(html, nameEnd) ?: return false
+
+            val name = html.substring(nameStart, nameEnd).lowercase()
+            if (name in RAW_TEXT_TAGS) return false
+            if (name in BLOCK_TAGS) separate = true
+
+            if (!closing && name in SKIPPED_TAGS) {
+                val end = html.indexOf("</$name", i, true)
+                if (end == -1) return false
+
+                i = end
+            }
+        }
+
+        return true
+    }
+
+    /**
+     * @return the index of the next tag, comment or declaration from [start], or the end of [html]
+     */
+    private fun nextTag(html: String, start: Int): Int {
+        var i = html.indexOf('<', start)
+
+        while (i != -1 && i + 1 < html.length) {
+            val next = html[i + 1]
+            if (isAsciiLetter(next) || next == '/' || next == '!' || next == '?') return i
+
+            i = html.indexOf('<', i + 1)
+        }
+
+        return html.length
+    }
+
+    /**
+     * @return the index following the end of the tag, skipping quoted attribute values, or null if the tag is not closed
+     */
+    private fun tagEnd(html: String, start: Int): Int? {
+        var quote: Char? = null
+
+        for (i in start until html.length) {
+            val c = html[i]
+
+            if (quote != null) {
+                if (c == quote) quote = null
+            } else if (c == '"' || c == '\'') {
+                quote = c
+            } else if (c == '>') {
+                return i + 1
+            }
+        }
+
+        return null
+    }
+
+    /**
+     * @return the index following a comment or a declaration, or null if it can't be skipped safely
+     */
+    private fun skipDeclaration(html: String, start: Int): Int? {
+        if (html.startsWith("<!--", start)) {
+            val end = html.indexOf("-->", start + 4)
+            return if (end != -1) end + 3 else null
+        }
+
+        if (html.startsWith("<![CDATA[", start, true)) return null
+
+        val end = html.indexOf('>', start)
+        return if (end != -1) end + 1 else null
+    }
+
+    /**
+     * Append [html] text from [start] to [end], decoding entities and collapsing whitespaces
+     * @param separate if the text must be separated from the previous one
+     * @return if the next text must be separated from this one
+     */
+    private fun appendText(html: String, start: Int, end: Int, builder: StringBuilder, separate: Boolean): Boolean {
+        var whitespace = separate
+        var i = start
+
+        while (i < end) {
+            val c = html[i]
+            if (c != '&') {
+                whitespace = appendChar(c, builder, whitespace)
+                i++
+                continue
+            }
+
+            val entityEnd = html.indexOf(';', i)
+            val decoded = if (entityEnd in i + 2 until minOf(end, i + MAX_ENTITY_LENGTH))
+                decodeEntity(html, i + 1, entityEnd) else null
+
+            if (decoded == null) {
+                // entities without semicolon and less common ones are left to Jsoup
+                for (d in Parser.unescapeEntities(html.substring(i, end), false)) {
+                    whitespace = appendChar(d, builder, whitespace)
+                }
+
+                return whitespace
+            }
+
+            whitespace = appendChar(decoded, builder, whitespace)
+            i = entityEnd + 1
+        }
+
+        return whitespace
+    }
+
+    /**
+     * @param whitespace if a whitespace precedes [c]
+     * @return if a whitespace precedes the next char
+     */
+    private fun appendChar(c: Char, builder: StringBuilder, whitespace: Boolean): Boolean = when {
+        isWhitespace(c) -> true
+        c == '\u200b' || c == '\u00ad' -> whitespace // invisible chars, ignored like Jsoup does
+        else -> {
+            if (whitespace && builder.isNotEmpty()) builder.append(' ')
+
+            builder.append(c)
+            false
+        }
+    }
+
+    /**
+     * Decode the most common named entities and numeric ones
+     * @param start index following the ampersand
+     * @param end index of the semicolon
+     * @return the decoded char, or null if the entity is not handled here
+     */
+    private fun decodeEntity(html: String, start: Int, end: Int): Char? {
+        if (html[start] == '#') {
+            val hex = html[start + 1] == 'x' || html[start + 1] == 'X'
+            val digitsStart = if (hex) start + 2 else start + 1
+            if (digitsStart == end) return null
+
+            var code = 0
+            for (i in digitsStart until end) {
+                val digit = Character.digit(html[i], if (hex) 16 else 10)
+                if (digit == -1) return null
+
+                code = code * (if (hex) 16 else 10) + digit
+            }
+
+            // control chars, surrogates and Windows-1252 replacements are left to Jsoup
+            return if (code in 0x20..0x7E || code in 0xA0..0xD7FF) code.toChar() else null
+        }
+
+        return when (end - start) {
+            2 -> if (html.startsWith("lt", start)) '<' else if (html.startsWith("gt", start)) '>' else null
+            3 -> if (html.startsWith("amp", start)) '&' else null
+            4 -> when {
+                html.startsWith("quot", start) -> '"'
+                html.startsWith("apos", start) -> '\''
+                html.startsWith("nbsp", start) -> '\u00a0'
+                else -> null
+            }
+            else -> null
+        }
+    }
+
+    private fun isAsciiLetter(c: Char) = c in 'a'..'z' || c in 'A'..'Z'
+
+    private fun isWhitespace(c: Char) =
+            c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\u000c' || c == '\u00a0'
+}
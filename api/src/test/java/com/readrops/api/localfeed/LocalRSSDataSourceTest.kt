@@ -22,6 +22,7 @@ import org.koin.dsl.module
 import org.koin.test.KoinTest
 import org.koin.test.KoinTestRule
 import org.koin.test.inject
+import java.io.IOException
 import java.net.HttpURLConnection
 import java.util.concurrent.TimeUnit
 
@@ -156,6 +157,44 @@ class LocalRSSDataSourceTest : KoinTest {
         localRSSDataSource.queryRSSResource(url.toString(), null)
     }
 
+    @Test
+    fun retryAfterTest() {
+        val stream = TestUtils.loadResource("localfeed/rss2/rss_feed.xml")
+
+        mockServer.enqueue(MockResponse().setResponseCode(429)
+                .addHeader(HostRequestScheduler.RETRY_AFTER_HEADER, "1"))
+        mockServer.enqueue(MockResponse().setResponseCode(HttpURLConnection.HTTP_OK)
+                .addHeader(ApiUtils.CONTENT_TYPE_HEADER, "application/rss+xml; charset=UTF-8")
+                .setBody(Buffer().readFrom(stream)))
+
+        val pair = localRSSDataSource.queryRSSResource(url.toString(), null)
+
+        assertNotNull(pair)
+        assertEquals(mockServer.requestCount, 2)
+    }
+
+    @Test
+    fun longRetryAfterTest() {
+        mockServer.enqueue(MockResponse().setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE)
+                .addHeader(HostRequestScheduler.RETRY_AFTER_HEADER, "3600"))
+
+        try {
+            localRSSDataSource.queryRSSResource(url.toString(), null)
+            fail()
+        } catch (e: NetworkErrorException) {
+            // the host is now throttled
+        }
+
+        try {
+            localRSSDataSource.queryRSSResource(url.toString(), null)
+            fail()
+        } catch (e: IOException) {
+            // the request must not reach the server
+        }
+
+        assertEquals(mockServer.requestCount, 1)
+    }
+
     @Test(expected = UnknownFormatException::class)
     fun noContentTypeTest() {
         mockServer.enqueue(MockResponse().setResponseCode(HttpURLConnection.HTTP_OK))
@@ -71,4 +71,17 @@ class ATOMAdapterTest {
 
         assertTrue(exception.message!!.contains("Item link is required"))
     }
-}
\ No newline at end of file
+
+    @Test
+    fun stoppedParsingTest() {
+        val stream = TestUtils.loadResource("localfeed/atom/atom_items.xml")
+        val adapter = ATOMFeedAdapter { false }
+
+        val pair = adapter.fromXml(stream.konsumeXml())
+
+        assertEquals(pair.first.name, "Recent Commits to Readrops:develop")
+        // the item stopping the parsing is kept
+        assertEquals(pair.second.size, 1)
+        assertEquals(pair.second[0].title, "Add an option to open item url in custom tab")
+    }
+}
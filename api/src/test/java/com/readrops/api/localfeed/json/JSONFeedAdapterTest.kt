@@ -92,4 +92,22 @@ class JSONFeedAdapterTest {
         assertEquals("Item link is required", exception.message)
     }
 
-}
\ No newline at end of file
+
+    @Test
+    fun stoppedParsingTest() {
+        val stream = TestUtils.loadResource("localfeed/json/json_feed.json")
+        var itemCount = 0
+
+        val adapter = Moshi.Builder()
+                .add(Types.newParameterizedType(Pair::class.java, Feed::class.java,
+                        Types.newParameterizedType(List::class.java, Item::class.java)), JSONFeedAdapter { ++itemCount < 3 })
+                .build()
+                .adapter<Pair<Feed, List<Item>>>(Types.newParameterizedType(Pair::class.java, Feed::class.java,
+                        Types.newParameterizedType(List::class.java, Item::class.java)))
+
+        val pair = adapter.fromJson(Buffer().readFrom(stream))!!
+
+        assertEquals(pair.first.name, "News from Flying Meat")
+        assertEquals(pair.second.size, 3)
+    }
+}
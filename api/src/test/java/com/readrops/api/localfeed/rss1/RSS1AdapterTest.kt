@@ -84,4 +84,17 @@ class RSS1AdapterTest {
 
         assertTrue(exception.message!!.contains("RSS1 link or about element is required"))
     }
-}
\ No newline at end of file
+
+    @Test
+    fun stoppedParsingTest() {
+        val stream = TestUtils.loadResource("localfeed/rss1/rss1_feed.xml")
+        val adapter = RSS1FeedAdapter { item -> !item.title!!.startsWith("Firefox Usage is Down") }
+
+        val pair = adapter.fromXml(stream.konsumeXml())
+
+        assertEquals(pair.first.name, "Slashdot")
+        // the item stopping the parsing is kept
+        assertEquals(pair.second.size, 2)
+        assertTrue(pair.second[1].title!!.startsWith("Firefox Usage is Down"))
+    }
+}
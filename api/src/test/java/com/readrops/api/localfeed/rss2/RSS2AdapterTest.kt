@@ -115,4 +115,16 @@ class RSS2AdapterTest {
 
         assertEquals(item.imageLink, "https://image1.jpg")
     }
-}
\ No newline at end of file
+
+    @Test
+    fun stoppedParsingTest() {
+        val stream = TestUtils.loadResource("localfeed/rss2/rss_feed.xml")
+        val adapter = RSS2FeedAdapter { item -> item.title != "Africa declared free of wild polio" }
+
+        val pair = adapter.fromXml(stream.konsumeXml())
+
+        assertEquals(pair.first.name, "Hacker News")
+        assertEquals(pair.second.size, 1)
+        assertEquals(pair.second[0].title, "Africa declared free of wild polio")
+    }
+}
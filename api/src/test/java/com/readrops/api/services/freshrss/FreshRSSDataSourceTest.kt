@@ -0,0 +1,87 @@
+package com.readrops.api.services.freshrss
+
+import com.readrops.api.apiModule
+import com.readrops.api.services.freshrss.FreshRSSDataSource.GOOGLE_READING_LIST
+import com.readrops.api.services.freshrss.FreshRSSDataSource.GOOGLE_UNREAD
+import com.readrops.api.utils.AuthInterceptor
+import com.readrops.db.entities.Item
+import junit.framework.TestCase.assertEquals
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.koin.core.parameter.parametersOf
+import org.koin.dsl.module
+import org.koin.test.KoinTest
+import org.koin.test.KoinTestRule
+import org.koin.test.get
+import java.net.HttpURLConnection
+import java.util.concurrent.TimeUnit
+
+class FreshRSSDataSourceTest : KoinTest {
+
+    private val mockServer: MockWebServer = MockWebServer()
+    private lateinit var freshRSSDataSource: FreshRSSDataSource
+
+    @get:Rule
+    val koinTestRule = KoinTestRule.create {
+        modules(apiModule, module() {
+            single() {
+                OkHttpClient.Builder()
+                        .callTimeout(1, TimeUnit.MINUTES)
+                        .readTimeout(1, TimeUnit.HOURS)
+                        .addInterceptor(get<AuthInterceptor>())
+                        .build()
+            }
+        })
+    }
+
+    @Before
+    fun before() {
+        mockServer.start()
+        freshRSSDataSource = get { parametersOf(FreshRSSCredentials(null, mockServer.url("/").toString())) }
+    }
+
+    @After
+    fun tearDown() {
+        mockServer.close()
+    }
+
+    @Test
+    fun itemsPagesTest() {
+        mockServer.enqueue(MockResponse().setResponseCode(HttpURLConnection.HTTP_OK)
+                .setBody("""{"items": [{"id": "1", "published": 1625234040}, {"id": "2", "published": 1625234040}], "continuation": "2"}"""))
+        mockServer.enqueue(MockResponse().setResponseCode(HttpURLConnection.HTTP_OK)
+                .setBody("""{"items": [{"id": "3", "published": 1625234040}]}"""))
+
+        val items = mutableListOf<Item>()
+        freshRSSDataSource.getItems(null, null) { items.addAll(it) }.blockingAwait()
+
+        assertEquals(listOf("1", "2", "3"), items.map { it.remoteId })
+        assertEquals(2, mockServer.requestCount)
+        assertEquals(null, mockServer.takeRequest().requestUrl!!.queryParameter("c"))
+        assertEquals("2", mockServer.takeRequest().requestUrl!!.queryParameter("c"))
+    }
+
+    @Test
+    fun itemsIdsPagesTest() {
+        mockServer.enqueue(MockResponse().setResponseCode(HttpURLConnection.HTTP_OK)
+                .setBody("""{"itemRefs": [{"id": "1"}], "continuation": "5"}"""))
+        // some servers return the same continuation on the last page
+        mockServer.enqueue(MockResponse().setResponseCode(HttpURLConnection.HTTP_OK)
+                .setBody("""{"itemRefs": [{"id": "2"}], "continuation": "5"}"""))
+
+        val ids = freshRSSDataSource.getItemsIds(GOOGLE_UNREAD, GOOGLE_READING_LIST, 1000L).blockingGet()
+
+        assertEquals(listOf("tag:google.com,2005:reader/item/1", "tag:google.com,2005:reader/item/2"), ids)
+        assertEquals(2, mockServer.requestCount)
+
+        mockServer.takeRequest()
+        val secondRequestUrl = mockServer.takeRequest().requestUrl!!
+        assertEquals("5", secondRequestUrl.queryParameter("c"))
+        assertEquals("1000", secondRequestUrl.queryParameter("ot"))
+    }
+}
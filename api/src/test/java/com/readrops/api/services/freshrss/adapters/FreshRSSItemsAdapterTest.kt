@@ -2,6 +2,7 @@ package com.readrops.api.services.freshrss.adapters
 
 import com.readrops.api.TestUtils
 import com.readrops.db.entities.Item
+import com.squareup.moshi.JsonReader
 import com.squareup.moshi.Moshi
 import com.squareup.moshi.Types
 import junit.framework.TestCase.assertEquals
@@ -40,4 +41,18 @@ class FreshRSSItemsAdapterTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    fun streamedItemsTest() {
+        val stream = TestUtils.loadResource("services/freshrss/adapters/items.json")
+        val batches = mutableListOf<List<Item>>()
+
+        val continuation = FreshRSSItemsAdapter().fromJson(JsonReader.of(Buffer().readFrom(stream)), 1) { batches.add(it) }
+
+        assertEquals("1620164205822673", continuation)
+        assertEquals(2, batches.size)
+        assertEquals(1, batches[0].size)
+        assertEquals("tag:google.com,2005:reader/item/0005c62466ee28fe", batches[0][0].remoteId)
+        assertEquals(true, batches[1][0].isStarred)
+    }
+
+}
@@ -4,6 +4,7 @@ import org.joda.time.LocalDateTime;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class DateUtilsTest {
 
@@ -55,4 +56,33 @@ public class DateUtilsTest {
 
         assertEquals(0, dateTime.compareTo(DateUtils.parse("Fri, 17 Jul 2020 16:30:00 EDT")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void rssDateOneDigitDayTest() {
+        LocalDateTime dateTime = new LocalDateTime(2019, 1, 4, 22, 21, 46);
+
+        assertEquals(0, dateTime.compareTo(DateUtils.parse("Fri, 4 Jan 2019 22:21:46 GMT")));
+    }
+
+    @Test
+    public void atomZuluDateTest() {
+        LocalDateTime dateTime = new LocalDateTime(2020, 9, 6, 21, 9, 59);
+
+        assertEquals(0, dateTime.compareTo(DateUtils.parse("2020-09-06T21:09:59Z")));
+    }
+
+    @Test
+    public void invalidDateTest() {
+        assertNull(DateUtils.parse("Fri, 32 Jan 2019 22:21:46 GMT"));
+        assertNull(DateUtils.parse("2019-13-04T22:21:46+00:00"));
+        assertNull(DateUtils.parse("2019-01-04T22:21:46 garbage"));
+        assertNull(DateUtils.parse(""));
+    }
+
+    @Test
+    public void sameResultAsFormatterTest() {
+        // values going through the fast path and the Joda formatter must give the same results
+        assertEquals(DateUtils.parse("Fri, 04 Jan 2019 22:21:46 GMT"), DateUtils.parse("Fri, 04 Jan 2019 22:21:46 CET"));
+        assertEquals(DateUtils.parse("2019-01-04T22:21:46+00:00"), DateUtils.parse("2019-01-04T22:21:46.000+00:00"));
+    }
+}
@@ -0,0 +1,50 @@
+package com.readrops.api.utils
+
+import junit.framework.TestCase.assertEquals
+import org.jsoup.Jsoup
+import org.junit.Test
+
+class HtmlTextExtractorTest {
+
+    @Test
+    fun tagsTest() {
+        assertEquals("This is a text to clean",
+                HtmlTextExtractor.extract("    <p>This is a <b>text</b><br/>to</p> clean    "))
+        assertEquals("one two", HtmlTextExtractor.extract("<div>one</div><DIV>two</DIV>"))
+        assertEquals("link after", HtmlTextExtractor.extract("<a href=\"https://example.com/?a>b\">link</a> after"))
+    }
+
+    @Test
+    fun entitiesTest() {
+        assertEquals("a & b < c", HtmlTextExtractor.extract("a &amp; b &lt; c"))
+        assertEquals("été é é", HtmlTextExtractor.extract("&eacute;t&eacute; &#233; &#x00e9;"))
+        assertEquals("x y", HtmlTextExtractor.extract("x&nbsp;&nbsp;y"))
+    }
+
+    @Test
+    fun whitespacesTest() {
+        assertEquals("tab new line", HtmlTextExtractor.extract("  tab\tnew\n\nline  "))
+        assertEquals("", HtmlTextExtractor.extract("<p> </p>"))
+    }
+
+    @Test
+    fun skippedContentTest() {
+        assertEquals("text", HtmlTextExtractor.extract("<!-- <p>comment</p> --><script>var a = '<p>';</script>text"))
+        assertEquals("hello", HtmlTextExtractor.extract("<?xml version=\"1.0\"?><style>p { color: red; }</style>hello"))
+    }
+
+    @Test
+    fun lowerThanTest() {
+        assertEquals("1 < 2 and 3 > 2", HtmlTextExtractor.extract("1 < 2 and 3 > 2"))
+    }
+
+    @Test
+    fun malformedHtmlTest() {
+        val samples = listOf("unclosed <b", "<!-- unclosed comment", "<title>title</title>text",
+                "<![CDATA[data]]>text", "</ p>text")
+
+        for (sample in samples) {
+            assertEquals(Jsoup.parse(sample).text(), HtmlTextExtractor.extract(sample))
+        }
+    }
+}
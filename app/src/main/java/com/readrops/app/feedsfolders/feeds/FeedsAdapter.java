@@ -13,7 +13,9 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.readrops.app.R;
 import com.readrops.app.databinding.FeedLayoutBinding;
+import com.readrops.app.utils.FeedSyncScheduler;
 import com.readrops.app.utils.GlideRequests;
+import com.readrops.db.entities.Feed;
 import com.readrops.db.pojo.FeedWithFolder;
 
 import org.koin.java.KoinJavaComponent;
@@ -81,6 +83,14 @@ public class FeedsAdapter extends ListAdapter<FeedWithFolder, FeedsAdapter.FeedV
         } else
             viewHolder.binding.feedLayoutDescription.setVisibility(View.GONE);
 
+        Feed feed = feedWithFolder.getFeed();
+        if (FeedSyncScheduler.isQuarantined(feed.getFailureCount())) {
+            viewHolder.binding.feedLayoutError.setVisibility(View.VISIBLE);
+            viewHolder.binding.feedLayoutError.setText(viewHolder.itemView.getContext()
+                    .getString(R.string.feed_sync_paused, feed.getFailureCount(), feed.getLastError()));
+        } else
+            viewHolder.binding.feedLayoutError.setVisibility(View.GONE);
+
         if (feedWithFolder.getFolder() != null)
             viewHolder.binding.feedLayoutFolder.setText(feedWithFolder.getFolder().getName());
         else
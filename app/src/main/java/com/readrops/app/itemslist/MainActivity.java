@@ -24,6 +24,7 @@ import android.view.View;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.SearchView;
 import androidx.core.content.ContextCompat;
 import androidx.core.graphics.drawable.DrawableCompat;
 import androidx.drawerlayout.widget.DrawerLayout;
@@ -54,6 +55,7 @@ import com.readrops.app.databinding.ActivityMainBinding;
 import com.readrops.app.item.ItemActivity;
 import com.readrops.app.settings.SettingsActivity;
 import com.readrops.app.utils.GlideRequests;
+import com.readrops.app.utils.RetentionWorker;
 import com.readrops.app.utils.SharedPreferencesManager;
 import com.readrops.app.utils.Utils;
 import com.readrops.app.utils.customviews.CustomExpandableBadgeDrawerItem;
@@ -685,6 +687,8 @@ public class MainActivity extends AppCompatActivity implements SwipeRefreshLayou
                         drawerManager.enableAccountSelection();
                         updateDrawerFeeds(); // update drawer after syncing feeds
                         updating = false;
+
+                        RetentionWorker.enqueue(MainActivity.this);
                     }
 
                     @Override
@@ -707,9 +711,49 @@ public class MainActivity extends AppCompatActivity implements SwipeRefreshLayou
         MenuItem articlesItem = menu.findItem(R.id.item_filter_read_items);
         articlesItem.setChecked(viewModel.showReadItems());
 
+        setUpSearchView(menu.findItem(R.id.item_search));
+
         return true;
     }
 
+    private void setUpSearchView(MenuItem searchItem) {
+        SearchView searchView = (SearchView) searchItem.getActionView();
+        searchView.setQueryHint(getString(R.string.search_articles));
+
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                viewModel.setSearchQuery(query);
+                viewModel.invalidate();
+
+                searchView.clearFocus();
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                return false;
+            }
+        });
+
+        searchItem.setOnActionExpandListener(new MenuItem.OnActionExpandListener() {
+            @Override
+            public boolean onMenuItemActionExpand(MenuItem item) {
+                return true;
+            }
+
+            @Override
+            public boolean onMenuItemActionCollapse(MenuItem item) {
+                if (viewModel.isSearching()) {
+                    viewModel.setSearchQuery(null);
+                    viewModel.invalidate();
+                }
+
+                return true;
+            }
+        });
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         int itemId = item.getItemId();
@@ -1,6 +1,7 @@
 package com.readrops.app.itemslist;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.ViewModel;
@@ -12,7 +13,7 @@ import com.readrops.app.repositories.ARepository;
 import com.readrops.app.repositories.FeedUpdate;
 import com.readrops.app.utils.SharedPreferencesManager;
 import com.readrops.db.Database;
-import com.readrops.db.RoomFactoryWrapper;
+import com.readrops.db.ItemsDataSource;
 import com.readrops.db.entities.Feed;
 import com.readrops.db.entities.Folder;
 import com.readrops.db.entities.Item;
@@ -70,18 +71,26 @@ public class MainViewModel extends ViewModel {
             itemsWithFeed.removeSource(lastFetch);
         }
 
-        DataSource.Factory<Integer, ItemWithFeed> items;
-        items = database.itemDao().selectAll(ItemsQueryBuilder.buildItemsQuery(queryFilters, currentAccount.getConfig().getUseSeparateState()));
+        boolean separateState = currentAccount.getConfig().getUseSeparateState();
 
-        lastFetch = new LivePagedListBuilder<>(new RoomFactoryWrapper<>(items),
+        if (isSearching()) {
+            lastFetch = buildLivePagedList(database.itemDao()
+                    .search(ItemsQueryBuilder.buildSearchQuery(queryFilters, separateState)));
+        } else {
+            lastFetch = buildLivePagedList(ItemsDataSource.factory(database, queryFilters, separateState));
+        }
+
+        itemsWithFeed.addSource(lastFetch, itemsWithFeed::setValue);
+    }
+
+    private static <K> LiveData<PagedList<ItemWithFeed>> buildLivePagedList(DataSource.Factory<K, ItemWithFeed> items) {
+        return new LivePagedListBuilder<>(items,
                 new PagedList.Config.Builder()
                         .setPageSize(100)
                         .setPrefetchDistance(150)
                         .setEnablePlaceholders(false)
                         .build())
                 .build();
-
-        itemsWithFeed.addSource(lastFetch, itemsWithFeed::setValue);
     }
 
     public void invalidate() {
@@ -120,6 +129,14 @@ public class MainViewModel extends ViewModel {
         queryFilters.setFilterFolderId(folderId);
     }
 
+    public void setSearchQuery(@Nullable String searchQuery) {
+        queryFilters.setSearchQuery(searchQuery);
+    }
+
+    public boolean isSearching() {
+        return queryFilters.getSearchQuery() != null;
+    }
+
     public MediatorLiveData<PagedList<ItemWithFeed>> getItemsWithFeed() {
         return itemsWithFeed;
     }
@@ -241,14 +258,12 @@ public class MainViewModel extends ViewModel {
     }
 
     public Completable setItemsReadState(List<ItemWithFeed> items, boolean read) {
-        List<Completable> completableList = new ArrayList<>();
-
+        List<Item> itemList = new ArrayList<>(items.size());
         for (ItemWithFeed itemWithFeed : items) {
-            itemWithFeed.getItem().setRead(read);
-            completableList.add(setItemReadState(itemWithFeed));
+            itemList.add(itemWithFeed.getItem());
         }
 
-        return Completable.concat(completableList);
+        return repository.setItemsReadState(itemList, read);
     }
 
     public Completable setAllItemsReadState(boolean read) {
@@ -15,6 +15,7 @@ import com.readrops.app.ReadropsApp
 import com.readrops.app.itemslist.MainActivity
 import com.readrops.app.repositories.ARepository
 import com.readrops.app.utils.ReadropsKeys
+import com.readrops.app.utils.RetentionWorker
 import com.readrops.app.utils.SharedPreferencesManager
 import com.readrops.db.Database
 import com.readrops.db.entities.Item
@@ -54,7 +55,7 @@ class SyncWorker(context: Context, parameters: WorkerParameters) : Worker(contex
 
                 val repository = get<ARepository>(parameters = { parametersOf(it) })
 
-                disposable = repository.sync(null, null)
+                disposable = repository.backgroundSync()
                         .doOnError { throwable ->
                             result = Result.failure()
                             Log.e(TAG, throwable.message!!, throwable)
@@ -69,6 +70,7 @@ class SyncWorker(context: Context, parameters: WorkerParameters) : Worker(contex
         } finally {
             notificationManager.cancel(SYNC_NOTIFICATION_ID)
             displaySyncResultNotif(syncResults)
+            RetentionWorker.enqueue(applicationContext)
 
             return result
         }
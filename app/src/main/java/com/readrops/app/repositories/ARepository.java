@@ -21,11 +21,13 @@ import com.readrops.db.entities.Folder;
 import com.readrops.db.entities.Item;
 import com.readrops.db.entities.ItemState;
 import com.readrops.db.entities.account.Account;
+import com.readrops.db.pojo.FeedUnreadCount;
 
 import org.koin.java.KoinJavaComponent;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -58,6 +60,14 @@ public abstract class ARepository {
 
     public abstract Completable sync(@Nullable List<Feed> feeds, @Nullable FeedUpdate update);
 
+    /**
+     * Sync triggered by the background worker, repositories can skip feeds which don't need to be synced yet.
+     * Syncs started by the user must call {@link #sync(List, FeedUpdate)} to refresh every feed.
+     */
+    public Completable backgroundSync() {
+        return sync(null, null);
+    }
+
     public abstract Single<List<FeedInsertionResult>> addFeeds(List<ParsingResult> results);
 
     public Completable insertOPMLFoldersAndFeeds(Map<Folder, List<Feed>> foldersAndFeeds) {
@@ -127,6 +137,33 @@ public abstract class ARepository {
 
     }
 
+    /**
+     * Set the read state of many items in one transaction, instead of calling {@link #setItemReadState(Item)} for each of them
+     */
+    public Completable setItemsReadState(List<Item> items, boolean read) {
+        List<Integer> itemIds = new ArrayList<>(items.size());
+        for (Item item : items) {
+            item.setRead(read);
+            itemIds.add(item.getId());
+        }
+
+        return Completable.create(emitter -> {
+            database.runInTransaction(() -> {
+                if (account.getConfig().getUseSeparateState()) {
+                    database.itemStateChangesDao().upsertItemsReadStateChanges(itemIds, read, account.getId(), true);
+                    database.itemStateDao().upsertItemsReadState(itemIds, read, account.getId());
+                } else if (account.isLocal()) {
+                    database.itemDao().setReadState(itemIds, read);
+                } else { // nextcloud case
+                    database.itemStateChangesDao().upsertItemsReadStateChanges(itemIds, read, account.getId(), false);
+                    database.itemDao().setReadState(itemIds, read);
+                }
+            });
+
+            emitter.onComplete();
+        });
+    }
+
     public Completable setAllItemsReadState(boolean read) {
         if (account.isLocal()) { // TODO see if it's possible to implement for others accounts
             return database.itemDao().setAllItemsReadState(read ? 1 : 0, account.getId());
@@ -163,23 +200,32 @@ public abstract class ARepository {
     public Single<Map<Folder, List<Feed>>> getFoldersWithFeeds() {
         return Single.create(emitter -> {
             List<Folder> folders = database.folderDao().getFolders(account.getId());
+            List<Feed> feeds = database.feedDao().getFeeds(account.getId());
+            Map<Integer, Integer> unreadCounts = getUnreadCounts();
+
             Map<Folder, List<Feed>> foldersWithFeeds = new TreeMap<>(Comparator.nullsLast(Folder::compareTo));
+            Map<Integer, List<Feed>> feedsByFolder = new HashMap<>();
 
             for (Folder folder : folders) {
-                List<Feed> feeds = database.feedDao().getFeedsByFolder(folder.getId());
-
-                for (Feed feed : feeds) {
-                    int unreadCount = database.itemDao().getUnreadCount(feed.getId());
-                    feed.setUnreadCount(unreadCount);
-                }
+                List<Feed> folderFeeds = new ArrayList<>();
 
-                foldersWithFeeds.put(folder, feeds);
+                feedsByFolder.put(folder.getId(), folderFeeds);
+                foldersWithFeeds.put(folder, folderFeeds);
             }
 
             // feeds without folder
-            List<Feed> feedsWithoutFolder = database.feedDao().getFeedsWithoutFolder(account.getId());
-            for (Feed feed : feedsWithoutFolder) {
-                feed.setUnreadCount(database.itemDao().getUnreadCount(feed.getId()));
+            List<Feed> feedsWithoutFolder = new ArrayList<>();
+
+            for (Feed feed : feeds) {
+                Integer unreadCount = unreadCounts.get(feed.getId());
+                feed.setUnreadCount(unreadCount != null ? unreadCount : 0);
+
+                List<Feed> folderFeeds = feed.getFolderId() != null ? feedsByFolder.get(feed.getFolderId()) : null;
+                if (folderFeeds != null) {
+                    folderFeeds.add(feed);
+                } else {
+                    feedsWithoutFolder.add(feed);
+                }
             }
 
             foldersWithFeeds.put(null, feedsWithoutFolder);
@@ -188,6 +234,22 @@ public abstract class ARepository {
         });
     }
 
+    /**
+     * @return unread items count by feed id, feeds without unread items are absent
+     */
+    private Map<Integer, Integer> getUnreadCounts() {
+        List<FeedUnreadCount> unreadCounts = account.getConfig().getUseSeparateState() ?
+                database.feedCounterDao().getSeparateStateUnreadCounts(account.getId()) :
+                database.feedCounterDao().getUnreadCounts(account.getId());
+
+        Map<Integer, Integer> unreadCountsMap = new HashMap<>(unreadCounts.size());
+        for (FeedUnreadCount unreadCount : unreadCounts) {
+            unreadCountsMap.put(unreadCount.getFeedId(), unreadCount.getUnreadCount());
+        }
+
+        return unreadCountsMap;
+    }
+
     protected void setFeedColors(Feed feed) {
         FeedColorsKt.setFeedColors(feed);
         database.feedDao().updateColors(feed.getId(),
@@ -0,0 +1,62 @@
+package com.readrops.app.repositories;
+
+import com.readrops.api.localfeed.ItemListener;
+import com.readrops.db.entities.Item;
+
+import org.joda.time.LocalDateTime;
+
+import java.util.Set;
+
+/**
+ * Stops the parsing of a local feed when the next items are already known or over the items limit.
+ * As it is based on the item order, this is only done while the items are sorted from the most recent one,
+ * otherwise the feed is entirely parsed.
+ */
+class FeedParsingListener implements ItemListener {
+
+    /**
+     * Number of the feed most recent items whose guids are checked while parsing,
+     * older known items are parsed but skipped when inserted
+     */
+    static final int KNOWN_GUIDS_COUNT = 100;
+
+    private final int maxItems;
+
+    private final Set<String> knownGuids;
+
+    private int itemCount;
+
+    private LocalDateTime lastPubDate;
+
+    private boolean sortedByDate = true;
+
+    /**
+     * @param maxItems   maximum number of items to parse, 0 for no limit
+     * @param knownGuids guids of the feed most recent items, loaded once before parsing
+     */
+    FeedParsingListener(int maxItems, Set<String> knownGuids) {
+        this.maxItems = maxItems;
+        this.knownGuids = knownGuids;
+    }
+
+    @Override
+    public boolean onItem(Item item) {
+        itemCount++;
+
+        if (item.getPubDate() == null || (lastPubDate != null && item.getPubDate().isAfter(lastPubDate))) {
+            sortedByDate = false;
+        }
+        lastPubDate = item.getPubDate();
+
+        // one item is not enough to know the feed order
+        if (!sortedByDate || itemCount < 2) {
+            return true;
+        }
+
+        if (maxItems > 0 && itemCount >= maxItems) {
+            return false;
+        }
+
+        return item.getGuid() == null || !knownGuids.contains(item.getGuid());
+    }
+}
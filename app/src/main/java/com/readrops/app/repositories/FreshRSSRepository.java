@@ -10,6 +10,7 @@ import androidx.annotation.Nullable;
 import com.readrops.api.services.SyncType;
 import com.readrops.api.services.freshrss.FreshRSSDataSource;
 import com.readrops.api.services.freshrss.FreshRSSSyncData;
+import com.readrops.api.utils.ApiUtils;
 import com.readrops.app.addfeed.FeedInsertionResult;
 import com.readrops.app.addfeed.ParsingResult;
 import com.readrops.app.utils.Utils;
@@ -26,8 +27,10 @@ import org.joda.time.DateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import io.reactivex.Completable;
@@ -37,6 +40,8 @@ public class FreshRSSRepository extends ARepository {
 
     private static final String TAG = FreshRSSRepository.class.getSimpleName();
 
+    private static final long OLDEST_ITEM_TIME_MARGIN = 24 * 60 * 60; // seconds
+
     private final FreshRSSDataSource dataSource;
 
     public FreshRSSRepository(FreshRSSDataSource dataSource, Database database, @NonNull Context context, @Nullable Account account) {
@@ -116,36 +121,46 @@ public class FreshRSSRepository extends ARepository {
                     .map(ItemReadStarState::getRemoteId)
                     .collect(Collectors.toList()));
 
-            emitter.onSuccess(syncData);
-        }).flatMap(syncData1 -> dataSource.sync(syncType, syncData1, account.getWriteToken()))
-                .flatMapCompletable(syncResult -> {
-                    logger.addSplit("server queries");
-
-                    insertFolders(syncResult.getFolders());
-                    logger.addSplit("folders insertion");
-                    insertFeeds(syncResult.getFeeds());
-                    logger.addSplit("feeds insertion");
-
-                    insertItems(syncResult.getItems(), false);
-                    logger.addSplit("items insertion");
-
-                    insertItems(syncResult.getStarredItems(), true);
-                    logger.addSplit("starred items insertion");
-
-                    insertItemsIds(syncResult.getUnreadIds(), syncResult.getReadIds(), syncResult.getStarredIds());
-                    logger.addSplit("insert and update items ids");
-
-                    account.setLastModified(newLastModified);
-                    database.accountDao().updateLastModified(account.getId(), newLastModified);
-
-                    database.itemStateChangesDao().resetStateChanges(account.getId());
-
-                    logger.dumpToLog();
-
-                    this.syncResult = syncResult;
+            // read states are only needed for stored items, the server dates items by when it fetched them
+            // which may be before their publication date
+            Long oldestPubDate = database.itemDao().selectOldestPubDate(account.getId());
+            syncData.setOldestItemTime(oldestPubDate != null ?
+                    oldestPubDate / 1000L - OLDEST_ITEM_TIME_MARGIN : newLastModified);
 
-                    return Completable.complete();
-                });
+            emitter.onSuccess(syncData);
+        }).flatMap(syncData1 -> dataSource.pushItemsStates(syncData1, account.getWriteToken()))
+                .flatMapCompletable(pushedData -> dataSource.sync(syncType, syncData)
+                        .flatMapCompletable(syncResult -> {
+                            logger.addSplit("server queries");
+
+                            insertFolders(syncResult.getFolders());
+                            logger.addSplit("folders insertion");
+                            insertFeeds(syncResult.getFeeds());
+                            logger.addSplit("feeds insertion");
+
+                            return dataSource.syncItems(syncType, syncData,
+                                    items -> syncResult.getItems().addAll(insertItems(items, false)),
+                                    starredItems -> insertItems(starredItems, true))
+                                    .andThen(Completable.fromAction(() -> {
+                                        logger.addSplit("items insertion");
+
+                                        insertItemsIds(syncResult.getUnreadIds(), syncResult.getReadIds(), syncResult.getStarredIds(),
+                                                syncData, pushedData);
+                                        logger.addSplit("insert and update items ids");
+
+                                        account.setLastModified(newLastModified);
+                                        database.accountDao().updateLastModified(account.getId(), newLastModified);
+
+                                        database.itemStateChangesDao().clearPushedStateChanges(
+                                                concat(pushedData.getReadItemsIds(), pushedData.getUnreadItemsIds()),
+                                                concat(pushedData.getStarredItemsIds(), pushedData.getUnstarredItemsIds()),
+                                                account.getId());
+
+                                        logger.dumpToLog();
+
+                                        this.syncResult = syncResult;
+                                    }));
+                        }));
     }
 
     @Override
@@ -232,11 +247,27 @@ public class FreshRSSRepository extends ARepository {
         database.folderDao().foldersUpsert(freshRSSFolders, account);
     }
 
-    private void insertItems(List<Item> items, boolean starredItems) {
+    /**
+     * Insert a batch of items with their bodies, items already inserted are skipped
+     *
+     * @return the inserted items, without description and content which are only needed to insert them
+     */
+    private List<Item> insertItems(List<Item> items, boolean starredItems) {
         List<Item> itemsToInsert = new ArrayList<>();
         Map<String, Integer> itemsFeedsIds = new HashMap<>();
 
+        // batches are committed while the stream is read, an interrupted sync leaves some of them for the next one
+        List<String> remoteIds = new ArrayList<>(items.size());
+        for (Item item : items) {
+            remoteIds.add(item.getRemoteId());
+        }
+        Set<String> existingRemoteIds = database.itemDao().getExistingRemoteIds(remoteIds, account.getId());
+
         for (Item item : items) {
+            if (existingRemoteIds.contains(item.getRemoteId())) {
+                continue;
+            }
+
             Integer feedId;
             if (itemsFeedsIds.containsKey(item.getFeedRemoteId())) {
                 feedId = itemsFeedsIds.get(item.getFeedRemoteId());
@@ -264,38 +295,82 @@ public class FreshRSSRepository extends ARepository {
 
         if (!itemsToInsert.isEmpty()) {
             Collections.sort(itemsToInsert, Item::compareTo);
-            database.itemDao().insert(itemsToInsert);
+            database.itemDao().insertWithBodies(itemsToInsert, ApiUtils::cleanText);
+
+            for (Item item : itemsToInsert) {
+                item.setDescription(null);
+                item.setContent(null);
+            }
         }
+
+        return itemsToInsert;
     }
 
-    private void insertItemsIds(List<String> unreadIds, List<String> readIds, List<String> starredIds) {
-        database.itemStateDao().deleteItemsStates(account.getId());
+    /**
+     * @param syncData   local changes
+     * @param pushedData local changes which reached the server
+     */
+    private void insertItemsIds(List<String> unreadIds, List<String> readIds, List<String> starredIds,
+                                FreshRSSSyncData syncData, FreshRSSSyncData pushedData) {
+        Set<String> starredIdsSet = new HashSet<>(starredIds);
+        Map<String, ItemState> itemStates = new HashMap<>(unreadIds.size() + readIds.size() + starredIds.size());
+
+        for (String id : unreadIds) {
+            itemStates.put(id, new ItemState(0, false, starredIdsSet.contains(id), id, account.getId()));
+        }
 
-        database.itemStateDao().insertItemStates(unreadIds.stream().map(id -> {
-                    boolean starred = starredIds.stream().filter(starredId -> starredId.equals(id)).count() == 1;
-                    if (starred) {
-                        starredIds.remove(id);
-                    }
+        for (String id : readIds) {
+            if (!itemStates.containsKey(id)) {
+                itemStates.put(id, new ItemState(0, true, starredIdsSet.contains(id), id, account.getId()));
+            }
+        }
 
-                    return new ItemState(0, false, starred, id, account.getId());
-                }
-        ).collect(Collectors.toList()));
+        // starred items ids which are read
+        for (String id : starredIds) {
+            if (!itemStates.containsKey(id)) {
+                itemStates.put(id, new ItemState(0, true, true, id, account.getId()));
+            }
+        }
 
-        database.itemStateDao().insertItemStates(readIds.stream().map(id -> {
-                    boolean starred = starredIds.stream().filter(starredId -> starredId.equals(id)).count() == 1;
-                    if (starred) {
-                        starredIds.remove(id);
-                    }
+        // changes which couldn't be pushed are kept over the server states, they will be pushed at the next sync
+        keepLocalStates(itemStates, syncData.getReadItemsIds(), pushedData.getReadItemsIds(), true, null);
+        keepLocalStates(itemStates, syncData.getUnreadItemsIds(), pushedData.getUnreadItemsIds(), false, null);
+        keepLocalStates(itemStates, syncData.getStarredItemsIds(), pushedData.getStarredItemsIds(), null, true);
+        keepLocalStates(itemStates, syncData.getUnstarredItemsIds(), pushedData.getUnstarredItemsIds(), null, false);
 
-                    return new ItemState(0, true, starred, id, account.getId());
-                }
-        ).collect(Collectors.toList()));
+        database.itemStateDao().replaceItemStates(account.getId(), itemStates.values());
+    }
 
-        // insert starred items ids which are read
-        if (!starredIds.isEmpty()) {
-            database.itemStateDao().insertItemStates(starredIds.stream().map(id ->
-                    new ItemState(0, true, true, id, account.getId()))
-                    .collect(Collectors.toList()));
+    /**
+     * @param read    local read state, null if it didn't change
+     * @param starred local star state, null if it didn't change
+     */
+    private void keepLocalStates(Map<String, ItemState> itemStates, List<String> ids, List<String> pushedIds,
+                                 @Nullable Boolean read, @Nullable Boolean starred) {
+        if (pushedIds.size() == ids.size()) {
+            return;
         }
+
+        Set<String> pushedIdsSet = new HashSet<>(pushedIds);
+        for (String id : ids) {
+            if (pushedIdsSet.contains(id)) {
+                continue;
+            }
+
+            // items without server state are neither unread nor starred
+            ItemState itemState = itemStates.get(id);
+            itemStates.put(id, new ItemState(0,
+                    read != null ? read : itemState == null || itemState.getRead(),
+                    starred != null ? starred : itemState != null && itemState.getStarred(),
+                    id, account.getId()));
+        }
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> list = new ArrayList<>(first.size() + second.size());
+        list.addAll(first);
+        list.addAll(second);
+
+        return list;
     }
 }
@@ -16,6 +16,7 @@ import com.readrops.api.utils.exceptions.ParseException;
 import com.readrops.api.utils.exceptions.UnknownFormatException;
 import com.readrops.app.addfeed.FeedInsertionResult;
 import com.readrops.app.addfeed.ParsingResult;
+import com.readrops.app.utils.FeedSyncScheduler;
 import com.readrops.app.utils.SharedPreferencesManager;
 import com.readrops.app.utils.Utils;
 import com.readrops.db.Database;
@@ -23,23 +24,37 @@ import com.readrops.db.entities.Feed;
 import com.readrops.db.entities.Item;
 import com.readrops.db.entities.account.Account;
 
-import org.jsoup.Jsoup;
-
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
 import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
 import kotlin.Pair;
 import okhttp3.Headers;
+import okhttp3.HttpUrl;
 
 public class LocalFeedRepository extends ARepository {
 
     private static final String TAG = LocalFeedRepository.class.getSimpleName();
 
+    /**
+     * Number of fetched feeds inserted in the same database transaction
+     */
+    private static final int INSERTION_BATCH_SIZE = 10;
+
     private LocalRSSDataSource dataSource;
 
     public LocalFeedRepository(LocalRSSDataSource dataSource, Database database, @NonNull Context context, @Nullable Account account) {
@@ -55,40 +70,139 @@ public class LocalFeedRepository extends ARepository {
     }
 
     @Override
-    public Completable sync(@Nullable List<Feed> feeds, FeedUpdate update) {
+    public Completable sync(@Nullable List<Feed> feeds, @Nullable FeedUpdate update) {
         return Completable.create(emitter -> {
             List<Feed> feedList;
 
             if (feeds == null || feeds.isEmpty()) {
-                feedList = database.feedDao().getFeeds(account.getId());
+                // quarantined feeds are only retried when the user syncs them explicitly
+                feedList = database.feedDao().getFeedsNotQuarantined(account.getId(),
+                        FeedSyncScheduler.QUARANTINE_THRESHOLD, System.currentTimeMillis());
             } else {
                 feedList = feeds;
             }
 
-            for (Feed feed : feedList) {
+            int maxConcurrentFeeds = Integer.parseInt(SharedPreferencesManager.readString(
+                    SharedPreferencesManager.SharedPrefKey.SIMULTANEOUS_FEEDS_SYNC));
+
+            // feeds are fetched and parsed in parallel, but the results are inserted
+            // in the database by batches, from the sync thread only
+            Observable.fromIterable(interleaveByHost(feedList))
+                    .flatMapMaybe(feed -> fetchFeed(feed, update)
+                            .subscribeOn(Schedulers.io()), false, Math.max(1, maxConcurrentFeeds))
+                    .buffer(INSERTION_BATCH_SIZE)
+                    .blockingSubscribe(this::insertFetchedFeeds, emitter::onError, emitter::onComplete);
+        });
+    }
+
+    @Override
+    public Completable backgroundSync() {
+        return Completable.defer(() -> {
+            List<Feed> feeds = database.feedDao().getFeedsToSync(account.getId(), System.currentTimeMillis());
+
+            // an empty list would sync all the feeds
+            return feeds.isEmpty() ? Completable.complete() : sync(feeds, null);
+        });
+    }
+
+    /**
+     * Reorder feeds so consecutive feeds are hosted on different hosts,
+     * to avoid filling all the sync slots with requests waiting for the same host
+     *
+     * @param feeds feeds to reorder
+     * @return feeds taken from each host in turn
+     */
+    private List<Feed> interleaveByHost(List<Feed> feeds) {
+        Map<String, Deque<Feed>> feedsByHost = new LinkedHashMap<>();
+        for (Feed feed : feeds) {
+            HttpUrl url = feed.getUrl() != null ? HttpUrl.parse(feed.getUrl()) : null;
+            String host = url != null ? url.host() : "";
+
+            Deque<Feed> hostFeeds = feedsByHost.get(host);
+            if (hostFeeds == null) {
+                hostFeeds = new ArrayDeque<>();
+                feedsByHost.put(host, hostFeeds);
+            }
+
+            hostFeeds.add(feed);
+        }
+
+        List<Feed> interleavedFeeds = new ArrayList<>(feeds.size());
+        while (interleavedFeeds.size() < feeds.size()) {
+            for (Deque<Feed> hostFeeds : feedsByHost.values()) {
+                if (!hostFeeds.isEmpty()) {
+                    interleavedFeeds.add(hostFeeds.poll());
+                }
+            }
+        }
+
+        return interleavedFeeds;
+    }
+
+    /**
+     * Query and parse a feed
+     *
+     * @param feed   feed to query
+     * @param update progress listener, notified when the feed query starts
+     * @return the feed with its items (empty if the feed wasn't modified), or nothing if the feed couldn't be fetched
+     */
+    private Maybe<Pair<Feed, List<Item>>> fetchFeed(Feed feed, @Nullable FeedUpdate update) {
+        return Maybe.fromCallable(() -> {
+            if (update != null) {
                 Handler mainHandler = new Handler(Looper.getMainLooper());
                 mainHandler.post(() -> update.onNext(feed));
+            }
 
-                try {
-                    Headers.Builder headers = new Headers.Builder();
-                    if (feed.getEtag() != null) {
-                        headers.add(ApiUtils.IF_NONE_MATCH_HEADER, feed.getEtag());
-                    }
-                    if (feed.getLastModified() != null) {
-                        headers.add(ApiUtils.IF_MODIFIED_HEADER, feed.getLastModified());
-                    }
+            try {
+                Headers.Builder headers = new Headers.Builder();
+                if (feed.getEtag() != null) {
+                    headers.add(ApiUtils.IF_NONE_MATCH_HEADER, feed.getEtag());
+                }
+                if (feed.getLastModified() != null) {
+                    headers.add(ApiUtils.IF_MODIFIED_HEADER, feed.getLastModified());
+                }
 
-                    Pair<Feed, List<Item>> pair = dataSource.queryRSSResource(feed.getUrl(), headers.build());
+                int maxItems = Integer.parseInt(SharedPreferencesManager.readString(
+                        SharedPreferencesManager.SharedPrefKey.ITEMS_TO_PARSE_MAX_NB));
+                FeedParsingListener listener = new FeedParsingListener(maxItems, new HashSet<>(database.itemDao()
+                        .getLastGuids(feed.getId(), FeedParsingListener.KNOWN_GUIDS_COUNT)));
 
-                    if (pair != null) {
-                        insertNewItems(feed, pair.getSecond());
-                    }
+                Pair<Feed, List<Item>> pair = dataSource.queryRSSResource(feed.getUrl(), headers.build(), listener);
+
+                if (pair != null) {
+                    feed.setEtag(pair.getFirst().getEtag());
+                    feed.setLastModified(pair.getFirst().getLastModified());
+
+                    return new Pair<>(feed, pair.getSecond());
+                } else {
+                    return new Pair<>(feed, Collections.<Item>emptyList());
+                }
+            } catch (Exception e) {
+                Log.d(TAG, "sync: " + e.getMessage());
+                updateSyncFailure(feed, e);
+            }
+
+            return null;
+        });
+    }
+
+    private void updateSyncFailure(Feed feed, Exception e) {
+        int failureCount = feed.getFailureCount() + 1;
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+
+        database.feedDao().updateSyncFailure(feed.getId(), failureCount, error,
+                System.currentTimeMillis() + FeedSyncScheduler.failureBackoff(failureCount));
+    }
+
+    private void insertFetchedFeeds(List<Pair<Feed, List<Item>>> fetchedFeeds) {
+        database.runInTransaction(() -> {
+            for (Pair<Feed, List<Item>> pair : fetchedFeeds) {
+                try {
+                    insertNewItems(pair.getFirst(), pair.getSecond());
                 } catch (Exception e) {
                     Log.d(TAG, "sync: " + e.getMessage());
                 }
             }
-
-            emitter.onComplete();
         });
     }
 
@@ -142,8 +256,32 @@ public class LocalFeedRepository extends ARepository {
             items = items.subList(items.size() - maxItems, items.size());
         }
 
+        // items deleted by the retention policy must not come back as new ones,
+        // only the ones published before the last deletion cutoff of the feed are skipped, whatever their age otherwise
+        long retentionPubDate = feed.getRetentionPubDate();
+        if (retentionPubDate > 0) {
+            items = items.stream()
+                    .filter(item -> item.getPubDate() == null || item.getPubDate().toDateTime().getMillis() >= retentionPubDate)
+                    .collect(Collectors.toList());
+        }
+
         items.stream().forEach(item -> item.setFeedId(feed.getId()));
-        insertItems(items, feed);
+        int newItemsCount = insertItems(items, feed);
+
+        updateSyncSchedule(feed, newItemsCount > 0);
+    }
+
+    private void updateSyncSchedule(Feed feed, boolean hasNewItems) {
+        long syncInterval;
+        if (hasNewItems) {
+            syncInterval = FeedSyncScheduler.intervalFromPubDates(database.itemDao()
+                    .getLastPubDates(feed.getId(), FeedSyncScheduler.PUB_DATES_COUNT));
+        } else {
+            syncInterval = FeedSyncScheduler.increaseInterval(feed.getSyncInterval());
+        }
+
+        database.feedDao().updateSyncSchedule(feed.getId(), syncInterval,
+                System.currentTimeMillis() + syncInterval);
     }
 
     private Feed insertFeed(Feed feed, ParsingResult parsingResult) {
@@ -164,13 +302,23 @@ public class LocalFeedRepository extends ARepository {
         return feed;
     }
 
-    private void insertItems(Collection<Item> items, Feed feed) {
+    private int insertItems(Collection<Item> items, Feed feed) {
         List<Item> itemsToInsert = new ArrayList<>();
 
+        List<String> guids = new ArrayList<>(items.size());
+        for (Item item : items) {
+            if (item.getGuid() != null) {
+                guids.add(item.getGuid());
+            }
+        }
+
+        // also used to skip items appearing twice in the same feed
+        Set<String> knownGuids = new HashSet<>(database.itemDao().getExistingGuids(guids, feed.getAccountId()));
+
         for (Item dbItem : items) {
-            if (!database.itemDao().itemExists(dbItem.getGuid(), feed.getAccountId())) {
+            if (dbItem.getGuid() == null || knownGuids.add(dbItem.getGuid())) {
                 if (dbItem.getDescription() != null) {
-                    dbItem.setCleanDescription(Jsoup.parse(dbItem.getDescription()).text());
+                    dbItem.setCleanDescription(ApiUtils.cleanText(dbItem.getDescription()));
                 }
 
                 if (dbItem.getContent() != null) {
@@ -184,6 +332,8 @@ public class LocalFeedRepository extends ARepository {
         }
 
         syncResult.getItems().addAll(itemsToInsert);
-        database.itemDao().insert(itemsToInsert);
+        database.itemDao().insertWithBodies(itemsToInsert, ApiUtils::cleanText);
+
+        return itemsToInsert.size();
     }
 }
@@ -12,6 +12,7 @@ import com.readrops.api.services.SyncResult;
 import com.readrops.api.services.SyncType;
 import com.readrops.api.services.nextcloudnews.NextNewsDataSource;
 import com.readrops.api.services.nextcloudnews.NextNewsSyncData;
+import com.readrops.api.utils.ApiUtils;
 import com.readrops.api.utils.exceptions.UnknownFormatException;
 import com.readrops.app.addfeed.FeedInsertionResult;
 import com.readrops.app.addfeed.ParsingResult;
@@ -29,7 +30,10 @@ import org.koin.java.KoinJavaComponent;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import io.reactivex.Completable;
@@ -325,28 +329,51 @@ public class NextNewsRepository extends ARepository {
     }
 
     private void insertItems(List<Item> items, boolean initialSync) {
+        Map<String, Integer> feedIds = new HashMap<>();
+        for (Feed feed : database.feedDao().getFeeds(account.getId())) {
+            feedIds.put(feed.getRemoteId(), feed.getId());
+        }
+
+        Set<String> existingRemoteIds;
+        if (initialSync) {
+            existingRemoteIds = Collections.emptySet();
+        } else {
+            List<String> remoteIds = new ArrayList<>(items.size());
+            for (Item item : items) {
+                remoteIds.add(item.getRemoteId());
+            }
+
+            existingRemoteIds = database.itemDao().getExistingRemoteIds(remoteIds, account.getId());
+        }
+
         List<Item> itemsToInsert = new ArrayList<>();
+        List<Item> itemsToUpdate = new ArrayList<>();
 
         for (Item item : items) {
-            int feedId = database.feedDao().getFeedIdByRemoteId(item.getFeedRemoteId(), account.getId());
-
             //if the item already exists, update only its read state
-            if (!initialSync && feedId > 0 && database.itemDao().remoteItemExists(String.valueOf(item.getRemoteId()), feedId)) {
-                database.itemDao().setReadAndStarState(item.getRemoteId(), item.isRead(), item.isStarred());
+            if (existingRemoteIds.contains(item.getRemoteId())) {
+                itemsToUpdate.add(item);
                 continue;
             }
 
-            item.setFeedId(feedId);
+            Integer feedId = feedIds.get(item.getFeedRemoteId());
+            item.setFeedId(feedId != null ? feedId : 0);
             item.setReadTime(Utils.readTimeFromString(item.getContent()));
 
             itemsToInsert.add(item);
         }
 
-        if (!itemsToInsert.isEmpty()) {
-            syncResult.setItems(itemsToInsert);
+        database.runInTransaction(() -> {
+            if (!itemsToUpdate.isEmpty()) {
+                database.itemDao().setReadAndStarStates(itemsToUpdate, account.getId());
+            }
 
-            Collections.sort(itemsToInsert, Item::compareTo);
-            database.itemDao().insert(itemsToInsert);
-        }
+            if (!itemsToInsert.isEmpty()) {
+                syncResult.setItems(itemsToInsert);
+
+                Collections.sort(itemsToInsert, Item::compareTo);
+                database.itemDao().insertWithBodies(itemsToInsert, ApiUtils::cleanText);
+            }
+        });
     }
 }
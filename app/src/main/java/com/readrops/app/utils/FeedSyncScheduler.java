@@ -0,0 +1,80 @@
+package com.readrops.app.utils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes when a local feed needs to be synced again, based on how often it publishes new items.
+ */
+public final class FeedSyncScheduler {
+
+    public static final long MIN_SYNC_INTERVAL = TimeUnit.MINUTES.toMillis(15);
+
+    public static final long MAX_SYNC_INTERVAL = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * Number of the last publication dates used to compute the publication interval
+     */
+    public static final int PUB_DATES_COUNT = 10;
+
+    /**
+     * Number of failed syncs in a row after which a feed is quarantined:
+     * it is not synced anymore until its backoff delay is over, even by a full sync from the user
+     */
+    public static final int QUARANTINE_THRESHOLD = 5;
+
+    public static final long MAX_FAILURE_BACKOFF = TimeUnit.DAYS.toMillis(7);
+
+    private static final double BACKOFF_FACTOR = 1.5;
+
+    private FeedSyncScheduler() {
+
+    }
+
+    /**
+     * Compute the sync interval of a feed which just returned new items.
+     * The feed is synced twice per average publication interval so new items are not fetched too late.
+     *
+     * @param pubDates last publication dates of the feed items in ms, sorted from the most recent
+     * @return the sync interval in ms
+     */
+    public static long intervalFromPubDates(List<Long> pubDates) {
+        if (pubDates.size() < 2) {
+            return MIN_SYNC_INTERVAL;
+        }
+
+        long averageInterval = (pubDates.get(0) - pubDates.get(pubDates.size() - 1)) / (pubDates.size() - 1);
+
+        return clamp(averageInterval / 2);
+    }
+
+    /**
+     * Compute the sync interval of a feed which didn't return any new item (not modified or already known items)
+     *
+     * @param currentInterval current sync interval of the feed in ms
+     * @return the increased sync interval in ms
+     */
+    public static long increaseInterval(long currentInterval) {
+        return clamp((long) (Math.max(currentInterval, MIN_SYNC_INTERVAL) * BACKOFF_FACTOR));
+    }
+
+    /**
+     * Compute the delay before the next sync of a failing feed, doubled for each failure in a row
+     *
+     * @param failureCount number of failed syncs in a row, including the last one
+     * @return the delay in ms
+     */
+    public static long failureBackoff(int failureCount) {
+        int exponent = Math.min(Math.max(failureCount - 1, 0), 30);
+
+        return Math.min(MIN_SYNC_INTERVAL << exponent, MAX_FAILURE_BACKOFF);
+    }
+
+    public static boolean isQuarantined(int failureCount) {
+        return failureCount >= QUARANTINE_THRESHOLD;
+    }
+
+    private static long clamp(long interval) {
+        return Math.max(MIN_SYNC_INTERVAL, Math.min(interval, MAX_SYNC_INTERVAL));
+    }
+}
@@ -0,0 +1,50 @@
+package com.readrops.app.utils;
+
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes which read items are old enough to be deleted, from a maximum age and a maximum number of items per feed.
+ * Starred and read it later items are never deleted, whatever the policy.
+ */
+public final class RetentionPolicy {
+
+    /**
+     * Number of items deleted per transaction, so the database is never locked for long
+     */
+    public static final int DELETION_BATCH_SIZE = 500;
+
+    private RetentionPolicy() {
+
+    }
+
+    /**
+     * @param maxAgeDays 0 to keep the items whatever their age
+     * @param maxItems   0 to keep the items whatever their number
+     */
+    public static boolean isEnabled(int maxAgeDays, int maxItems) {
+        return maxAgeDays > 0 || maxItems > 0;
+    }
+
+    /**
+     * @param maxAgeDays maximum age of the items, 0 to keep them whatever their age
+     * @param now        current time in ms
+     * @return the publication date in ms before which items can be deleted, 0 if none can be
+     */
+    public static long ageCutoff(int maxAgeDays, long now) {
+        return maxAgeDays > 0 ? now - TimeUnit.DAYS.toMillis(maxAgeDays) : 0;
+    }
+
+    /**
+     * Combine both limits for a feed, an item exceeding one of them can be deleted
+     *
+     * @param ageCutoff       see {@link #ageCutoff(int, long)}
+     * @param lastKeptPubDate publication date in ms of the oldest item kept by the maximum number of items,
+     *                        null if the feed doesn't exceed it
+     * @return the publication date in ms before which the feed items can be deleted, 0 if none can be
+     */
+    public static long feedCutoff(long ageCutoff, @Nullable Long lastKeptPubDate) {
+        return lastKeptPubDate != null ? Math.max(ageCutoff, lastKeptPubDate) : ageCutoff;
+    }
+}
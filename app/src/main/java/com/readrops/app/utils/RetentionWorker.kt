@@ -0,0 +1,130 @@
+package com.readrops.app.utils
+
+import android.content.Context
+import android.util.Log
+import androidx.work.Constraints
+import androidx.work.ExistingWorkPolicy
+import androidx.work.OneTimeWorkRequest
+import androidx.work.WorkManager
+import androidx.work.Worker
+import androidx.work.WorkerParameters
+import com.readrops.db.Database
+import com.readrops.db.entities.account.Account
+import org.koin.core.component.KoinComponent
+import org.koin.core.component.get
+
+/**
+ * Delete the read items exceeding the retention policy, see [RetentionPolicy].
+ * Items are deleted by batches, each one in its own transaction, then the freed pages are given back to the file system.
+ */
+class RetentionWorker(context: Context, parameters: WorkerParameters) : Worker(context, parameters), KoinComponent {
+
+    private val database = get<Database>()
+
+    override fun doWork(): Result {
+        val maxAgeDays = Integer.parseInt(SharedPreferencesManager.readString(
+                SharedPreferencesManager.SharedPrefKey.RETENTION_MAX_AGE))
+        val maxItems = Integer.parseInt(SharedPreferencesManager.readString(
+                SharedPreferencesManager.SharedPrefKey.RETENTION_MAX_ITEMS))
+
+        if (!RetentionPolicy.isEnabled(maxAgeDays, maxItems)) return Result.success()
+
+        return try {
+            val ageCutoff = RetentionPolicy.ageCutoff(maxAgeDays, System.currentTimeMillis())
+            var deletedCount = 0
+
+            for (account in database.accountDao().selectAll()) {
+                for (feed in database.feedDao().getFeeds(account.id)) {
+                    if (isStopped) return Result.success()
+
+                    val lastKeptPubDate = if (maxItems > 0) database.itemDao().getPubDateAt(feed.id, maxItems - 1) else null
+                    val cutoff = RetentionPolicy.feedCutoff(ageCutoff, lastKeptPubDate)
+
+                    if (cutoff > 0) {
+                        val feedDeletedCount = deleteReadItems(feed.id, account, cutoff)
+
+                        // deleted items must not come back as new ones at the next sync
+                        if (feedDeletedCount > 0) database.feedDao().updateRetentionPubDate(feed.id, cutoff)
+                        deletedCount += feedDeletedCount
+                    }
+                }
+            }
+
+            if (deletedCount > 0) reclaimSpace()
+            Result.success()
+        } catch (e: Exception) {
+            Log.e(TAG, e.message, e)
+            Result.failure()
+        }
+    }
+
+    private fun deleteReadItems(feedId: Int, account: Account, maxPubDate: Long): Int {
+        var deletedCount = 0
+        var batchCount: Int
+
+        do {
+            batchCount = if (account.config.useSeparateState) {
+                database.itemDao().deleteSeparateStateReadItems(feedId, account.id, maxPubDate,
+                        RetentionPolicy.DELETION_BATCH_SIZE)
+            } else {
+                database.itemDao().deleteReadItems(feedId, maxPubDate, RetentionPolicy.DELETION_BATCH_SIZE)
+            }
+
+            deletedCount += batchCount
+        } while (batchCount == RetentionPolicy.DELETION_BATCH_SIZE && !isStopped)
+
+        return deletedCount
+    }
+
+    /**
+     * Incremental vacuum needs a full vacuum to be enabled on existing databases, it is done once.
+     * Afterwards, only the free pages are released, which doesn't rewrite the whole database.
+     *
+     * The full vacuum writes a copy of the database and its journal, it waits for a run with enough free space.
+     * Until then, the freed pages are reused by the next inserted items.
+     */
+    private fun reclaimSpace() {
+        val db = database.openHelper.writableDatabase
+
+        val autoVacuum = db.query("PRAGMA auto_vacuum").use { if (it.moveToFirst()) it.getInt(0) else 0 }
+        if (autoVacuum != AUTO_VACUUM_INCREMENTAL) {
+            val databaseFile = applicationContext.getDatabasePath(database.openHelper.databaseName)
+            if (databaseFile.usableSpace < databaseFile.length() * VACUUM_SPACE_FACTOR) {
+                Log.d(TAG, "not enough free space to vacuum the database")
+                return
+            }
+
+            db.execSQL("PRAGMA auto_vacuum = INCREMENTAL")
+            db.execSQL("VACUUM")
+        } else {
+            db.query("PRAGMA incremental_vacuum").use { while (it.moveToNext()) continue }
+        }
+    }
+
+    companion object {
+        val TAG: String = RetentionWorker::class.java.simpleName
+
+        private const val AUTO_VACUUM_INCREMENTAL = 2
+
+        /**
+         * Free space needed by a full vacuum, relative to the database size
+         */
+        private const val VACUUM_SPACE_FACTOR = 2
+
+        /**
+         * Run the worker if it is not already scheduled, when the battery and the storage are not low
+         */
+        @JvmStatic
+        fun enqueue(context: Context) {
+            val request = OneTimeWorkRequest.Builder(RetentionWorker::class.java)
+                    .addTag(TAG)
+                    .setConstraints(Constraints.Builder()
+                            .setRequiresBatteryNotLow(true)
+                            .setRequiresStorageNotLow(true)
+                            .build())
+                    .build()
+
+            WorkManager.getInstance(context).enqueueUniqueWork(TAG, ExistingWorkPolicy.KEEP, request)
+        }
+    }
+}
@@ -55,11 +55,14 @@ public final class SharedPreferencesManager {
     public enum SharedPrefKey {
         SHOW_READ_ARTICLES("show_read_articles", false),
         ITEMS_TO_PARSE_MAX_NB("items_to_parse_max_nb", "20"),
+        SIMULTANEOUS_FEEDS_SYNC("simultaneous_feeds_sync", "8"),
         OPEN_ITEMS_IN("open_items_in", "0"),
         DARK_THEME("dark_theme", "false"),
         AUTO_SYNCHRO("auto_synchro", "0"),
         HIDE_FEEDS("hide_feeds", false),
-        MARK_ITEMS_READ_ON_SCROLL("mark_items_read", false);
+        MARK_ITEMS_READ_ON_SCROLL("mark_items_read", false),
+        RETENTION_MAX_AGE("retention_max_age", "0"),
+        RETENTION_MAX_ITEMS("retention_max_items", "0");
 
         @NonNull
         private String key;
@@ -13,6 +13,7 @@ import android.view.View;
 
 import androidx.annotation.ColorInt;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.google.android.material.snackbar.Snackbar;
 
@@ -49,10 +50,44 @@ public final class Utils {
         }
     }
 
-    public static double readTimeFromString(String value) {
-        int nbWords = value.split("\\s+").length;
+    public static double readTimeFromString(@Nullable String value) {
+        return (double) countWords(value) / AVERAGE_WORDS_PER_MINUTE;
+    }
+
+    /**
+     * Count the words of a text or an html content in a single pass, without allocating.
+     * Html tags are not counted and separate words.
+     */
+    public static int countWords(@Nullable String value) {
+        if (value == null) {
+            return 0;
+        }
+
+        int count = 0;
+        boolean inWord = false;
+        boolean inTag = false;
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (inTag) {
+                inTag = c != '>';
+            } else if (c == '<' && i + 1 < value.length() && isTagStart(value.charAt(i + 1))) {
+                inTag = true;
+                inWord = false;
+            } else if (Character.isWhitespace(c) || c == '\u00a0') {
+                inWord = false;
+            } else if (!inWord) {
+                inWord = true;
+                count++;
+            }
+        }
+
+        return count;
+    }
 
-        return (double) nbWords / AVERAGE_WORDS_PER_MINUTE;
+    private static boolean isTagStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '/' || c == '!' || c == '?';
     }
 
     public static String getCssColor(@ColorInt int color) {
@@ -13,6 +13,8 @@ import androidx.annotation.Nullable;
 
 import com.readrops.app.R;
 import com.readrops.app.utils.Utils;
+import com.readrops.db.CompressedText;
+import com.readrops.db.entities.ItemBody;
 import com.readrops.db.pojo.ItemWithFeed;
 
 import org.jsoup.Jsoup;
@@ -25,6 +27,9 @@ public class ReadropsWebView extends WebView {
 
     private ItemWithFeed itemWithFeed;
 
+    @Nullable
+    private String content;
+
     @ColorInt
     private int textColor;
     @ColorInt
@@ -40,7 +45,11 @@ public class ReadropsWebView extends WebView {
     public void setItem(ItemWithFeed itemWithFeed) {
         this.itemWithFeed = itemWithFeed;
 
-        String text = getText();
+        // bodies are stored compressed, they are decompressed once for rendering
+        ItemBody body = itemWithFeed.getBody();
+        content = body != null ? decompress(body.getContent()) : null;
+
+        String text = getText(content != null ? content : body != null ? decompress(body.getDescription()) : null);
         String base64Content = null;
 
         if (text != null)
@@ -50,10 +59,14 @@ public class ReadropsWebView extends WebView {
     }
 
     public String getItemContent() {
-        String content = itemWithFeed.getItem().getContent();
         return content;
     }
 
+    @Nullable
+    private static String decompress(@Nullable CompressedText compressedText) {
+        return compressedText != null ? compressedText.decompress() : null;
+    }
+
     private void getColors(Context context, AttributeSet attrs) {
         TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.ReadropsWebView);
         textColor = typedArray.getColor(R.styleable.ReadropsWebView_textColor, 0);
@@ -77,14 +90,14 @@ public class ReadropsWebView extends WebView {
     }
 
     @Nullable
-    private String getText() {
-        if (itemWithFeed.getItem().getText() != null) {
+    private String getText(@Nullable String text) {
+        if (text != null) {
             Document document;
 
             if (itemWithFeed.getWebsiteUrl() != null)
-                document = Jsoup.parse(Parser.unescapeEntities(itemWithFeed.getItem().getText(), false), itemWithFeed.getWebsiteUrl());
+                document = Jsoup.parse(Parser.unescapeEntities(text, false), itemWithFeed.getWebsiteUrl());
             else
-                document = Jsoup.parse(Parser.unescapeEntities(itemWithFeed.getItem().getText(), false));
+                document = Jsoup.parse(Parser.unescapeEntities(text, false));
 
             formatDocument(document);
 
@@ -0,0 +1,50 @@
+package com.readrops.app;
+
+import com.readrops.app.utils.FeedSyncScheduler;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+
+public class FeedSyncSchedulerTest {
+
+    @Test
+    public void intervalFromPubDatesTest() {
+        long hour = TimeUnit.HOURS.toMillis(1);
+
+        assertEquals(hour, FeedSyncScheduler.intervalFromPubDates(Arrays.asList(4 * hour, 2 * hour, 0L)));
+    }
+
+    @Test
+    public void intervalFromPubDatesBoundsTest() {
+        assertEquals(FeedSyncScheduler.MIN_SYNC_INTERVAL,
+                FeedSyncScheduler.intervalFromPubDates(Collections.singletonList(0L)));
+        assertEquals(FeedSyncScheduler.MIN_SYNC_INTERVAL,
+                FeedSyncScheduler.intervalFromPubDates(Arrays.asList(1000L, 0L)));
+        assertEquals(FeedSyncScheduler.MAX_SYNC_INTERVAL,
+                FeedSyncScheduler.intervalFromPubDates(Arrays.asList(TimeUnit.DAYS.toMillis(365), 0L)));
+    }
+
+    @Test
+    public void increaseIntervalTest() {
+        long interval = FeedSyncScheduler.increaseInterval(0);
+        assertEquals((long) (FeedSyncScheduler.MIN_SYNC_INTERVAL * 1.5), interval);
+
+        for (int i = 0; i < 20; i++) {
+            interval = FeedSyncScheduler.increaseInterval(interval);
+        }
+
+        assertEquals(FeedSyncScheduler.MAX_SYNC_INTERVAL, interval);
+    }
+
+    @Test
+    public void failureBackoffTest() {
+        assertEquals(FeedSyncScheduler.MIN_SYNC_INTERVAL, FeedSyncScheduler.failureBackoff(1));
+        assertEquals(FeedSyncScheduler.MIN_SYNC_INTERVAL * 4, FeedSyncScheduler.failureBackoff(3));
+        assertEquals(FeedSyncScheduler.MAX_FAILURE_BACKOFF, FeedSyncScheduler.failureBackoff(100));
+    }
+}
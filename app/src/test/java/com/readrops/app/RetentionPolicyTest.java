@@ -0,0 +1,37 @@
+package com.readrops.app;
+
+import com.readrops.app.utils.RetentionPolicy;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+public class RetentionPolicyTest {
+
+    @Test
+    public void isEnabledTest() {
+        assertFalse(RetentionPolicy.isEnabled(0, 0));
+        assertTrue(RetentionPolicy.isEnabled(30, 0));
+        assertTrue(RetentionPolicy.isEnabled(0, 100));
+    }
+
+    @Test
+    public void ageCutoffTest() {
+        long now = TimeUnit.DAYS.toMillis(100);
+
+        assertEquals(0, RetentionPolicy.ageCutoff(0, now));
+        assertEquals(TimeUnit.DAYS.toMillis(70), RetentionPolicy.ageCutoff(30, now));
+    }
+
+    @Test
+    public void feedCutoffTest() {
+        assertEquals(0, RetentionPolicy.feedCutoff(0, null));
+        assertEquals(1000, RetentionPolicy.feedCutoff(0, 1000L));
+        assertEquals(2000, RetentionPolicy.feedCutoff(2000, 1000L));
+        assertEquals(2000, RetentionPolicy.feedCutoff(1000, 2000L));
+    }
+}
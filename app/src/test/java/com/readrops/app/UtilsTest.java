@@ -6,6 +6,7 @@ import com.readrops.app.utils.Utils;
 
 import org.junit.Test;
 
+import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertTrue;
 
 public class UtilsTest {
@@ -19,4 +20,27 @@ public class UtilsTest {
     public void colorTooDarkTest() {
         assertTrue(Utils.isColorTooDark(Color.parseColor("#1a1a1a")));
     }
+
+    @Test
+    public void countWordsTest() {
+        assertEquals(0, Utils.countWords(null));
+        assertEquals(0, Utils.countWords("  \n "));
+        assertEquals(4, Utils.countWords(" one two\tthree\n\nfour "));
+    }
+
+    @Test
+    public void countHtmlWordsTest() {
+        assertEquals(7, Utils.countWords("<p>one <a href=\"https://example.com\" title=\"a link\">two</a></p><p>three<br/>four</p>"
+                + "<img src=\"image.png\" alt=\"image\"/> 1 < 2"));
+    }
+
+    @Test
+    public void readTimeTest() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            builder.append("<p>word</p>");
+        }
+
+        assertEquals(2.0, Utils.readTimeFromString(builder.toString()));
+    }
 }
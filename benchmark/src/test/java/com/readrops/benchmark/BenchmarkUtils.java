@@ -0,0 +1,39 @@
+package com.readrops.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public final class BenchmarkUtils {
+
+    private BenchmarkUtils() {
+
+    }
+
+    /**
+     * Load a test resource, api test samples are part of the resources
+     */
+    public static byte[] loadBytes(String path) throws IOException {
+        InputStream stream = BenchmarkUtils.class.getClassLoader().getResourceAsStream(path);
+        if (stream == null) {
+            throw new IOException("Resource " + path + " not found");
+        }
+
+        try (InputStream input = stream) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+
+            int count;
+            while ((count = input.read(buffer)) != -1) {
+                output.write(buffer, 0, count);
+            }
+
+            return output.toByteArray();
+        }
+    }
+
+    public static String loadString(String path) throws IOException {
+        return new String(loadBytes(path), StandardCharsets.UTF_8);
+    }
+}
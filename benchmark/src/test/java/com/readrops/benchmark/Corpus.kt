@@ -0,0 +1,223 @@
+package com.readrops.benchmark
+
+import com.readrops.api.localfeed.LocalRSSHelper
+
+/**
+ * Feed documents used by the parser benchmarks.
+ * Small documents are the api test samples, typical and pathological ones are generated.
+ */
+object Corpus {
+
+    const val SMALL = "small"
+    const val TYPICAL = "typical"
+    const val PATHOLOGICAL = "pathological"
+
+    /**
+     * Number of items and size in chars of each item content, by corpus size
+     */
+    private val LOCAL_FEED_SIZES = mapOf(TYPICAL to Pair(50, 2_000), PATHOLOGICAL to Pair(500, 10_000))
+
+    private val SERVICE_SIZES = mapOf(TYPICAL to Pair(100, 2_000), PATHOLOGICAL to Pair(2_500, 2_000))
+
+    private val OPML_SIZES = mapOf(TYPICAL to Pair(10, 20), PATHOLOGICAL to Pair(100, 100))
+
+    @JvmStatic
+    fun localFeed(type: LocalRSSHelper.RSSType, size: String): ByteArray {
+        if (size == SMALL) {
+            return BenchmarkUtils.loadBytes(when (type) {
+                LocalRSSHelper.RSSType.RSS_1 -> "localfeed/rss1/rss1_feed.xml"
+                LocalRSSHelper.RSSType.RSS_2 -> "localfeed/rss2/rss_feed.xml"
+                LocalRSSHelper.RSSType.ATOM -> "localfeed/atom/atom_items.xml"
+                else -> "localfeed/json/json_feed.json"
+            })
+        }
+
+        val (itemCount, contentSize) = LOCAL_FEED_SIZES.getValue(size)
+        val content = htmlContent(contentSize)
+
+        val document = when (type) {
+            LocalRSSHelper.RSSType.RSS_1 -> rss1Feed(itemCount, content)
+            LocalRSSHelper.RSSType.RSS_2 -> rss2Feed(itemCount, content)
+            LocalRSSHelper.RSSType.ATOM -> atomFeed(itemCount, content)
+            else -> jsonFeed(itemCount, content)
+        }
+
+        return document.toByteArray()
+    }
+
+    @JvmStatic
+    fun opml(size: String): ByteArray {
+        if (size == SMALL) return BenchmarkUtils.loadBytes("opml/subscriptions.opml")
+
+        val (folderCount, feedCount) = OPML_SIZES.getValue(size)
+
+        return buildString {
+            append("<opml version=\"2.0\"><head><title>Subscriptions</title></head><body>")
+
+            for (folder in 0 until folderCount) {
+                append("<outline text=\"Folder $folder\" title=\"Folder $folder\">")
+                for (feed in 0 until feedCount) {
+                    append("<outline type=\"rss\" text=\"Feed $folder-$feed\" title=\"Feed $folder-$feed\" ")
+                    append("xmlUrl=\"https://example$folder.com/feed$feed.xml\" htmlUrl=\"https://example$folder.com/\"/>")
+                }
+                append("</outline>")
+            }
+
+            append("</body></opml>")
+        }.toByteArray()
+    }
+
+    @JvmStatic
+    fun freshRSSItems(size: String): ByteArray {
+        if (size == SMALL) return BenchmarkUtils.loadBytes("services/freshrss/adapters/items.json")
+
+        val (itemCount, contentSize) = SERVICE_SIZES.getValue(size)
+        val content = jsonString(htmlContent(contentSize))
+
+        return buildString {
+            append("{\"id\":\"user/-/state/com.google/reading-list\",\"updated\":1625235516,\"items\":[")
+
+            for (i in 0 until itemCount) {
+                if (i > 0) append(',')
+                append("{\"id\":\"tag:google.com,2005:reader/item/$i\",\"crawlTimeMsec\":\"1625234531559\",")
+                append("\"published\":${1625234040 - i * 60},\"title\":\"Item $i\",")
+                append("\"summary\":{\"content\":$content},")
+                append("\"alternate\":[{\"href\":\"https://example.com/item$i\"}],")
+                append("\"categories\":[\"user/-/state/com.google/reading-list\",\"user/-/label/Folder\"],")
+                append("\"origin\":{\"streamId\":\"feed/${i % 20}\",\"title\":\"Feed\"},\"author\":\"Author\"}")
+            }
+
+            append("]}")
+        }.toByteArray()
+    }
+
+    @JvmStatic
+    fun nextNewsItems(size: String): ByteArray {
+        if (size == SMALL) return BenchmarkUtils.loadBytes("services/nextcloudnews/adapters/items.json")
+
+        val (itemCount, contentSize) = SERVICE_SIZES.getValue(size)
+        val content = jsonString(htmlContent(contentSize))
+
+        return buildString {
+            append("{\"items\":[")
+
+            for (i in 0 until itemCount) {
+                if (i > 0) append(',')
+                append("{\"id\":$i,\"guid\":\"https://example.com/?p=$i\",\"guidHash\":\"hash$i\",")
+                append("\"url\":\"https://example.com/item$i\",\"title\":\"Item $i\",\"author\":\"Author\",")
+                append("\"pubDate\":${1367270544 - i * 60},\"body\":$content,\"enclosureMime\":null,")
+                append("\"enclosureLink\":null,\"mediaThumbnail\":null,\"mediaDescription\":null,")
+                append("\"feedId\":${i % 20},\"unread\":true,\"starred\":false,\"rtl\":false,")
+                append("\"lastModified\":1367273003,\"fingerprint\":\"fingerprint$i\"}")
+            }
+
+            append("]}")
+        }.toByteArray()
+    }
+
+    /**
+     * Article bodies, the item contents of the api samples for the small corpus, generated ones otherwise
+     */
+    @JvmStatic
+    fun articles(size: String): List<String> {
+        if (size == SMALL) {
+            return LocalRSSHelper.RSSType.values()
+                    .filter { it != LocalRSSHelper.RSSType.UNKNOWN }
+                    .flatMap { Parsers.parseLocalFeed(localFeed(it, SMALL), it).second }
+                    .plus(Parsers.parseFreshRSSItems(freshRSSItems(SMALL)))
+                    .mapNotNull { it.content ?: it.description }
+        }
+
+        val (itemCount, contentSize) = LOCAL_FEED_SIZES.getValue(size)
+        return List(itemCount) { htmlContent(contentSize) }
+    }
+
+    private fun rss2Feed(itemCount: Int, content: String) = buildString {
+        append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+        append("<rss version=\"2.0\" xmlns:content=\"http://purl.org/rss/1.0/modules/content/\" ")
+        append("xmlns:dc=\"http://purl.org/dc/elements/1.1/\"><channel>")
+        append("<title>Benchmark feed</title><link>https://example.com/</link>")
+        append("<description>Generated feed</description>")
+
+        for (i in 0 until itemCount) {
+            append("<item><title>Item $i</title><link>https://example.com/item$i</link>")
+            append("<guid>https://example.com/item$i</guid><pubDate>Tue, 25 Aug 2020 17:15:49 +0000</pubDate>")
+            append("<dc:creator>Author</dc:creator><description>${xmlText(content.take(200))}</description>")
+            append("<content:encoded><![CDATA[$content]]></content:encoded></item>")
+        }
+
+        append("</channel></rss>")
+    }
+
+    private fun rss1Feed(itemCount: Int, content: String) = buildString {
+        append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+        append("<rdf:RDF xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\" xmlns=\"http://purl.org/rss/1.0/\" ")
+        append("xmlns:dc=\"http://purl.org/dc/elements/1.1/\" xmlns:content=\"http://purl.org/rss/1.0/modules/content/\">")
+        append("<channel rdf:about=\"https://example.com/\"><title>Benchmark feed</title>")
+        append("<link>https://example.com/</link><description>Generated feed</description></channel>")
+
+        for (i in 0 until itemCount) {
+            append("<item rdf:about=\"https://example.com/item$i\"><title>Item $i</title>")
+            append("<link>https://example.com/item$i</link><dc:date>2020-09-23T16:20:20+00:00</dc:date>")
+            append("<dc:creator>Author</dc:creator><description>${xmlText(content.take(200))}</description>")
+            append("<content:encoded><![CDATA[$content]]></content:encoded></item>")
+        }
+
+        append("</rdf:RDF>")
+    }
+
+    private fun atomFeed(itemCount: Int, content: String) = buildString {
+        append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+        append("<feed xmlns=\"http://www.w3.org/2005/Atom\"><title>Benchmark feed</title>")
+        append("<link rel=\"alternate\" href=\"https://example.com/\"/>")
+        append("<link rel=\"self\" href=\"https://example.com/feed.atom\"/><subtitle>Generated feed</subtitle>")
+
+        for (i in 0 until itemCount) {
+            append("<entry><id>https://example.com/item$i</id><title>Item $i</title>")
+            append("<link rel=\"alternate\" href=\"https://example.com/item$i\"/>")
+            append("<updated>2020-09-06T21:09:59Z</updated><author><name>Author</name></author>")
+            append("<summary>${xmlText(content.take(200))}</summary>")
+            append("<content type=\"html\">${xmlText(content)}</content></entry>")
+        }
+
+        append("</feed>")
+    }
+
+    private fun jsonFeed(itemCount: Int, content: String) = buildString {
+        append("{\"version\":\"https://jsonfeed.org/version/1\",\"title\":\"Benchmark feed\",")
+        append("\"home_page_url\":\"https://example.com/\",\"feed_url\":\"https://example.com/feed.json\",")
+        append("\"description\":\"Generated feed\",\"items\":[")
+
+        val jsonContent = jsonString(content)
+        for (i in 0 until itemCount) {
+            if (i > 0) append(',')
+            append("{\"id\":\"https://example.com/item$i\",\"url\":\"https://example.com/item$i\",")
+            append("\"title\":\"Item $i\",\"content_html\":$jsonContent,")
+            append("\"date_published\":\"2017-09-25T14:27:27-07:00\",\"author\":{\"name\":\"Author\"}}")
+        }
+
+        append("]}")
+    }
+
+    /**
+     * Article like html content, made of paragraphs with links, images and inline markup
+     */
+    @JvmStatic
+    fun htmlContent(size: Int) = buildString {
+        var paragraph = 0
+
+        while (length < size) {
+            append("<p>Paragraph $paragraph of a <strong>full content</strong> article, with a ")
+            append("<a href=\"https://example.com/link$paragraph\">link</a> &amp; some <em>inline</em> markup.</p>")
+            if (paragraph % 5 == 0) {
+                append("<img src=\"https://example.com/image$paragraph.jpg\" alt=\"image\"/>")
+            }
+
+            paragraph++
+        }
+    }
+
+    private fun xmlText(value: String) = value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+
+    private fun jsonString(value: String) = "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\""
+}
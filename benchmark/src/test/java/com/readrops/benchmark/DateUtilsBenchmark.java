@@ -0,0 +1,106 @@
+package com.readrops.benchmark;
+
+import com.readrops.api.utils.DateUtils;
+
+import org.joda.time.LocalDateTime;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.DateTimeFormatterBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses all the dates found in the api test samples, with {@link DateUtils#parse(String)}
+ * and with the formatter it used to build for each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateUtilsBenchmark {
+
+    private static final String[] SAMPLES = {
+            "localfeed/rss1/rss1_feed.xml",
+            "localfeed/rss2/rss_feed.xml",
+            "localfeed/atom/atom_feed.xml",
+            "localfeed/json/json_feed.json",
+    };
+
+    private static final Pattern DATE_PATTERN = Pattern.compile(
+            "<(?:pubDate|dc:date|updated|published)>([^<]+)</|\"date_published\"\\s*:\\s*\"([^\"]+)\"");
+
+    private List<String> dates;
+
+    @Setup
+    public void setup() throws IOException {
+        dates = new ArrayList<>();
+
+        for (String sample : SAMPLES) {
+            Matcher matcher = DATE_PATTERN.matcher(BenchmarkUtils.loadString(sample));
+
+            while (matcher.find()) {
+                dates.add(matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+            }
+        }
+
+        // shapes left to the Joda formatter
+        dates.add("Fri, 17 Jul 2020 16:30:00 CET");
+        dates.add("Mon, 04 Jan 2019 22:21:46 GMT");
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(DateUtils.parse(date));
+        }
+    }
+
+    @Benchmark
+    public void legacyParse(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(legacyParse(date));
+        }
+    }
+
+    /**
+     * DateUtils.parse before the formatter was cached and the fast paths were added
+     */
+    private static LocalDateTime legacyParse(String value) {
+        try {
+            DateTimeFormatter formatter = new DateTimeFormatterBuilder()
+                    .appendOptional(DateTimeFormat.forPattern("EEE, dd MMM yyyy HH:mm:ss ").getParser())
+                    .appendOptional(DateTimeFormat.forPattern("EEE, dd MMM yyyy HH:mm:ss").getParser())
+                    .appendOptional(DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss").getParser())
+                    .appendOptional(DateTimeFormat.forPattern("ZZZ").getParser())
+                    .appendOptional(DateTimeFormat.forPattern("Z").getParser())
+                    .appendOptional(DateTimeFormat.forPattern(".SSSZZ").getParser())
+                    .appendOptional(DateTimeFormat.forPattern("zzz").getParser())
+                    .toFormatter()
+                    .withLocale(Locale.ENGLISH)
+                    .withOffsetParsed();
+
+            return formatter.parseLocalDateTime(value);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
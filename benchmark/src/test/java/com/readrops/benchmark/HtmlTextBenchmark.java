@@ -0,0 +1,54 @@
+package com.readrops.benchmark;
+
+import com.readrops.api.utils.HtmlTextExtractor;
+
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extracts the text of an item description, with {@link HtmlTextExtractor}
+ * and with the Jsoup document it replaces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HtmlTextBenchmark {
+
+    /**
+     * Description size in chars, from a short summary to a full content article
+     */
+    @Param({"200", "2000", "20000"})
+    public int size;
+
+    private String html;
+
+    @Setup
+    public void setup() {
+        html = Corpus.htmlContent(size);
+    }
+
+    @Benchmark
+    public String extract() {
+        return HtmlTextExtractor.extract(html);
+    }
+
+    @Benchmark
+    public String jsoup() {
+        return Jsoup.parse(html).text();
+    }
+}
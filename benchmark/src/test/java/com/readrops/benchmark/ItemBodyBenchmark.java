@@ -0,0 +1,72 @@
+package com.readrops.benchmark;
+
+import com.readrops.api.utils.ApiUtils;
+import com.readrops.db.CompressedText;
+import com.readrops.db.entities.ItemBody;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates article bodies as they are stored in ItemBody when items are inserted, compressed and with their search text,
+ * and decompresses them as they are when an item is opened.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemBodyBenchmark {
+
+    @Param({Corpus.SMALL, Corpus.TYPICAL, Corpus.PATHOLOGICAL})
+    public String size;
+
+    private List<String> articles;
+
+    private CompressedText[] compressedArticles;
+
+    @Setup
+    public void setup() {
+        articles = Corpus.articles(size);
+        compressedArticles = new CompressedText[articles.size()];
+
+        for (int i = 0; i < articles.size(); i++) {
+            compressedArticles[i] = CompressedText.compress(articles.get(i));
+        }
+    }
+
+    @Benchmark
+    public void create(Blackhole blackhole) {
+        for (int i = 0; i < articles.size(); i++) {
+            blackhole.consume(ItemBody.create(i, null, articles.get(i), ApiUtils::cleanText));
+        }
+    }
+
+    @Benchmark
+    public void compress(Blackhole blackhole) {
+        for (String article : articles) {
+            blackhole.consume(CompressedText.compress(article));
+        }
+    }
+
+    @Benchmark
+    public void decompress(Blackhole blackhole) {
+        for (CompressedText compressedArticle : compressedArticles) {
+            blackhole.consume(compressedArticle.decompress());
+        }
+    }
+}
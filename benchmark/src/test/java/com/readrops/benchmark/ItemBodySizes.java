@@ -0,0 +1,44 @@
+package com.readrops.benchmark;
+
+import com.readrops.api.utils.ApiUtils;
+import com.readrops.db.entities.ItemBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Prints the stored size of the article bodies of each corpus, next to {@link ItemBodyBenchmark} timings:
+ * html size, compressed size and search text size, as stored in ItemBody.
+ * Generated articles are repetitive, only the small corpus gives realistic compression ratios.
+ * Run it with ./gradlew :benchmark:itemBodySizes.
+ */
+public final class ItemBodySizes {
+
+    private ItemBodySizes() {
+
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("corpus        articles   html B  compressed B  search text B  stored/html");
+
+        for (String size : new String[]{Corpus.SMALL, Corpus.TYPICAL, Corpus.PATHOLOGICAL}) {
+            List<String> articles = Corpus.articles(size);
+
+            long htmlSize = 0;
+            long compressedSize = 0;
+            long searchTextSize = 0;
+
+            for (int i = 0; i < articles.size(); i++) {
+                ItemBody body = ItemBody.create(i, null, articles.get(i), ApiUtils::cleanText);
+
+                htmlSize += articles.get(i).getBytes(StandardCharsets.UTF_8).length;
+                compressedSize += body.getContent().getBytes().length;
+                searchTextSize += body.getSearchText().getBytes(StandardCharsets.UTF_8).length;
+            }
+
+            System.out.printf("%-12s %9d %8d %13d %14d %12.2f%n", size, articles.size(), htmlSize, compressedSize,
+                    searchTextSize, (double) (compressedSize + searchTextSize) / htmlSize);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.readrops.benchmark;
+
+import com.readrops.api.localfeed.LocalRSSHelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses local feeds of each format (RSS 1, RSS 2, ATOM, JSON Feed) and each corpus size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalFeedParsersBenchmark {
+
+    @Param({"RSS_1", "RSS_2", "ATOM", "JSONFEED"})
+    public LocalRSSHelper.RSSType type;
+
+    @Param({Corpus.SMALL, Corpus.TYPICAL, Corpus.PATHOLOGICAL})
+    public String size;
+
+    private byte[] document;
+
+    @Setup
+    public void setup() throws IOException {
+        document = Corpus.localFeed(type, size);
+    }
+
+    @Benchmark
+    public Object parse() {
+        return Parsers.parseLocalFeed(document, type);
+    }
+}
@@ -0,0 +1,59 @@
+package com.readrops.benchmark
+
+import com.gitlab.mvysny.konsumexml.konsumeXml
+import com.readrops.api.localfeed.LocalRSSHelper
+import com.readrops.api.localfeed.XmlAdapter
+import com.readrops.api.localfeed.json.JSONFeedAdapter
+import com.readrops.api.opml.OPMLAdapter
+import com.readrops.api.services.freshrss.adapters.FreshRSSItemsAdapter
+import com.readrops.api.services.nextcloudnews.adapters.NextNewsItemsAdapter
+import com.readrops.db.entities.Feed
+import com.readrops.db.entities.Folder
+import com.readrops.db.entities.Item
+import com.squareup.moshi.Moshi
+import com.squareup.moshi.Types
+import okio.Buffer
+import java.io.ByteArrayInputStream
+
+/**
+ * Parse documents the same way the api module does, so the benchmarks can be written in Java
+ */
+object Parsers {
+
+    private val itemsType = Types.newParameterizedType(List::class.java, Item::class.java)
+    private val feedType = Types.newParameterizedType(Pair::class.java, Feed::class.java, itemsType)
+
+    private val jsonFeedAdapter = Moshi.Builder()
+            .add(feedType, JSONFeedAdapter())
+            .build()
+            .adapter<Pair<Feed, List<Item>>>(feedType)
+
+    private val freshRSSItemsAdapter = Moshi.Builder()
+            .add(itemsType, FreshRSSItemsAdapter())
+            .build()
+            .adapter<List<Item>>(itemsType)
+
+    private val nextNewsItemsAdapter = Moshi.Builder()
+            .add(itemsType, NextNewsItemsAdapter())
+            .build()
+            .adapter<List<Item>>(itemsType)
+
+    @JvmStatic
+    fun parseLocalFeed(document: ByteArray, type: LocalRSSHelper.RSSType): Pair<Feed, List<Item>> =
+            if (type == LocalRSSHelper.RSSType.JSONFEED) {
+                jsonFeedAdapter.fromJson(Buffer().write(document))!!
+            } else {
+                XmlAdapter.xmlFeedAdapterFactory(type)
+                        .fromXml(ByteArrayInputStream(document).konsumeXml())
+            }
+
+    @JvmStatic
+    fun parseOPML(document: ByteArray): Map<Folder?, List<Feed>> =
+            OPMLAdapter().fromXml(ByteArrayInputStream(document).konsumeXml())
+
+    @JvmStatic
+    fun parseFreshRSSItems(document: ByteArray): List<Item> = freshRSSItemsAdapter.fromJson(Buffer().write(document))!!
+
+    @JvmStatic
+    fun parseNextNewsItems(document: ByteArray): List<Item> = nextNewsItemsAdapter.fromJson(Buffer().write(document))!!
+}
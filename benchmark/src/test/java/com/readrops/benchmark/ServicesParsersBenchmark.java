@@ -0,0 +1,59 @@
+package com.readrops.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses OPML files and the items returned by FreshRSS and Nextcloud News, for each corpus size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServicesParsersBenchmark {
+
+    @Param({Corpus.SMALL, Corpus.TYPICAL, Corpus.PATHOLOGICAL})
+    public String size;
+
+    private byte[] opml;
+
+    private byte[] freshRSSItems;
+
+    private byte[] nextNewsItems;
+
+    @Setup
+    public void setup() throws IOException {
+        opml = Corpus.opml(size);
+        freshRSSItems = Corpus.freshRSSItems(size);
+        nextNewsItems = Corpus.nextNewsItems(size);
+    }
+
+    @Benchmark
+    public Object opml() {
+        return Parsers.parseOPML(opml);
+    }
+
+    @Benchmark
+    public Object freshRSSItems() {
+        return Parsers.parseFreshRSSItems(freshRSSItems);
+    }
+
+    @Benchmark
+    public Object nextNewsItems() {
+        return Parsers.parseNextNewsItems(nextNewsItems);
+    }
+}
@@ -0,0 +1,92 @@
+package com.readrops.db
+
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.readrops.db.entities.Feed
+import com.readrops.db.entities.Item
+import com.readrops.db.entities.ItemState
+import com.readrops.db.entities.account.Account
+import com.readrops.db.entities.account.AccountType
+import junit.framework.TestCase.assertEquals
+import junit.framework.TestCase.assertNull
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class FeedCounterTest {
+
+    private lateinit var database: Database
+
+    private var accountId = 0
+
+    private var feedId = 0
+
+    @Before
+    fun createDb() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        database = Room.inMemoryDatabaseBuilder(context, Database::class.java)
+                .addCallback(DATABASE_CALLBACK)
+                .build()
+
+        accountId = database.accountDao().compatInsert(Account(accountType = AccountType.FRESHRSS)).toInt()
+        feedId = database.feedDao().compatInsert(Feed(accountId = accountId)).toInt()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun itemsCountersTest() {
+        val items = (0 until 10).map { Item(feedId = feedId, isRead = it % 2 == 0, isStarred = it < 3, remoteId = "$it") }
+        database.itemDao().insert(items)
+
+        with(database.feedCounterDao().select(feedId)!!) {
+            assertEquals(5, unreadCount)
+            assertEquals(3, starredCount)
+        }
+
+        database.itemDao().setAllFeedItemsReadState(feedId, 1).blockingAwait()
+        database.itemDao().delete(database.itemDao().select(1)).blockingAwait()
+
+        with(database.feedCounterDao().select(feedId)!!) {
+            assertEquals(0, unreadCount)
+            assertEquals(2, starredCount)
+        }
+    }
+
+    @Test
+    fun itemStatesCountersTest() {
+        database.itemDao().insert((0 until 10).map { Item(feedId = feedId, remoteId = "$it") })
+        database.itemStateDao().insertItemStates((0 until 5).map {
+            ItemState(read = it == 0, starred = it == 1, remoteId = "$it", accountId = accountId)
+        })
+        // items inserted after their state
+        database.itemStateDao().insertItemState(ItemState(remoteId = "10", accountId = accountId))
+        database.itemDao().insert(listOf(Item(feedId = feedId, remoteId = "10")))
+
+        assertEquals(5, database.feedCounterDao().select(feedId)!!.stateUnreadCount)
+        assertEquals(5, database.itemDao().getSeparateStateUnreadCounts(accountId).first().unreadCount)
+        assertEquals(1, database.feedCounterDao().select(feedId)!!.stateStarredCount)
+
+        database.itemStateDao().updateItemReadState(true, "2", accountId)
+        database.itemStateDao().deleteItemState("3", accountId)
+
+        assertEquals(3, database.feedCounterDao().select(feedId)!!.stateUnreadCount)
+        assertEquals(database.itemDao().getSeparateStateUnreadCounts(accountId),
+                database.feedCounterDao().getSeparateStateUnreadCounts(accountId))
+    }
+
+    @Test
+    fun feedDeletionTest() {
+        database.itemDao().insert(listOf(Item(feedId = feedId)))
+        database.feedDao().delete(database.feedDao().getFeedById(feedId)).blockingAwait()
+
+        assertNull(database.feedCounterDao().select(feedId))
+    }
+}
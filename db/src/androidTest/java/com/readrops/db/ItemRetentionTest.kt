@@ -0,0 +1,89 @@
+package com.readrops.db
+
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.readrops.db.entities.Feed
+import com.readrops.db.entities.Item
+import com.readrops.db.entities.ItemState
+import com.readrops.db.entities.ItemStateChange
+import com.readrops.db.entities.account.Account
+import com.readrops.db.entities.account.AccountType
+import junit.framework.TestCase.assertEquals
+import org.joda.time.LocalDateTime
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class ItemRetentionTest {
+
+    private lateinit var database: Database
+
+    private var accountId = 0
+
+    private var feedId = 0
+
+    private val oldDate = LocalDateTime(2020, 1, 1, 0, 0)
+
+    private val maxPubDate = Converters.fromLocalDateTime(LocalDateTime(2021, 1, 1, 0, 0))
+
+    @Before
+    fun createDb() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        database = Room.inMemoryDatabaseBuilder(context, Database::class.java)
+                .addCallback(DATABASE_CALLBACK)
+                .build()
+
+        accountId = database.accountDao().compatInsert(Account(accountType = AccountType.FRESHRSS)).toInt()
+        feedId = database.feedDao().compatInsert(Feed(accountId = accountId)).toInt()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun deleteReadItemsTest() {
+        database.itemDao().insert(listOf(
+                Item(title = "deleted", isRead = true, pubDate = oldDate, feedId = feedId),
+                Item(title = "unread", pubDate = oldDate, feedId = feedId),
+                Item(title = "starred", isRead = true, isStarred = true, pubDate = oldDate, feedId = feedId),
+                Item(title = "read later", isRead = true, isReadItLater = true, pubDate = oldDate, feedId = feedId),
+                Item(title = "state change", isRead = true, pubDate = oldDate, feedId = feedId),
+                Item(title = "recent", isRead = true, pubDate = LocalDateTime.now(), feedId = feedId),
+        ))
+        database.itemStateChangesDao().insertItemStateChange(ItemStateChange(id = 5, readChange = true, accountId = accountId))
+
+        assertEquals(1, database.itemDao().deleteReadItems(feedId, maxPubDate, 100))
+        assertEquals(0, database.itemDao().deleteReadItems(feedId, maxPubDate, 100))
+        assertEquals(1, database.feedCounterDao().select(feedId)!!.unreadCount)
+    }
+
+    @Test
+    fun deleteSeparateStateReadItemsTest() {
+        database.itemDao().insert((0 until 4).map { Item(remoteId = "$it", pubDate = oldDate, feedId = feedId) })
+        database.itemStateDao().insertItemStates(listOf(
+                ItemState(read = true, remoteId = "0", accountId = accountId),
+                ItemState(read = false, remoteId = "1", accountId = accountId),
+                ItemState(read = true, starred = true, remoteId = "2", accountId = accountId),
+        ))
+
+        // items without state are read
+        assertEquals(2, database.itemDao().deleteSeparateStateReadItems(feedId, accountId, maxPubDate, 1) +
+                database.itemDao().deleteSeparateStateReadItems(feedId, accountId, maxPubDate, 1))
+        assertEquals(0, database.itemDao().deleteSeparateStateReadItems(feedId, accountId, maxPubDate, 1))
+    }
+
+    @Test
+    fun updateRetentionPubDateTest() {
+        database.feedDao().updateRetentionPubDate(feedId, maxPubDate)
+        // an older cutoff, after the maximum age was raised, doesn't let deleted items come back
+        database.feedDao().updateRetentionPubDate(feedId, maxPubDate - 1000)
+
+        assertEquals(maxPubDate, database.feedDao().getFeedById(feedId).retentionPubDate)
+    }
+}
@@ -0,0 +1,113 @@
+package com.readrops.db
+
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.readrops.db.entities.Feed
+import com.readrops.db.entities.Item
+import com.readrops.db.entities.account.Account
+import com.readrops.db.entities.account.AccountType
+import com.readrops.db.queries.ItemSelectionQueryBuilder
+import com.readrops.db.queries.ItemsQueryBuilder
+import com.readrops.db.queries.QueryFilters
+import junit.framework.TestCase.assertEquals
+import junit.framework.TestCase.assertNull
+import org.joda.time.LocalDateTime
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class ItemSearchTest {
+
+    private lateinit var database: Database
+
+    private var accountId = 0
+
+    private var feedId = 0
+
+    @Before
+    fun createDb() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        database = Room.inMemoryDatabaseBuilder(context, Database::class.java)
+                .addCallback(DATABASE_CALLBACK)
+                .build()
+
+        accountId = database.accountDao().compatInsert(Account(accountType = AccountType.LOCAL)).toInt()
+        feedId = database.feedDao().compatInsert(Feed(accountId = accountId)).toInt()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun rankingTest() {
+        val date = LocalDateTime.now()
+        database.itemDao().insertWithBodies(listOf(
+                Item(title = "Content", content = "<p>Android release</p>", pubDate = date, feedId = feedId),
+                Item(title = "Title", cleanDescription = "About Android", pubDate = date.minusDays(1), feedId = feedId),
+                Item(title = "Android release", pubDate = date.minusDays(2), feedId = feedId),
+                Item(title = "Nothing", content = "iOS release", pubDate = date.plusDays(1), feedId = feedId),
+        ), ::htmlToText)
+
+        assertEquals(listOf("Android release", "Title", "Content"), search("android"))
+        assertEquals(listOf("Android release", "Content"), search("ANDROID rel"))
+    }
+
+    @Test
+    fun indexUpdateTest() {
+        database.itemDao().insert(listOf(Item(title = "Été", feedId = feedId)))
+        val item = database.itemDao().select(1)
+
+        assertEquals(listOf("Été"), search("ete"))
+
+        // changes of non indexed columns don't touch the index
+        database.itemDao().setReadState(item.id, true).blockingAwait()
+        assertEquals(listOf("Été"), search("été"))
+
+        item.title = "Hiver"
+        database.itemDao().update(item).blockingAwait()
+        assertEquals(listOf<String>(), search("été"))
+        assertEquals(listOf("Hiver"), search("hiver"))
+
+        database.itemDao().delete(item).blockingAwait()
+        assertEquals(listOf<String>(), search("hiver"))
+    }
+
+    @Test
+    fun bodyIndexTest() {
+        database.itemDao().insertWithBodies(listOf(Item(title = "Item", content = "<p>Kotlin</p>", feedId = feedId)),
+                ::htmlToText)
+
+        val itemWithFeed = database.itemDao().selectItems(ItemSelectionQueryBuilder.buildQuery(1, false)).first()
+        assertEquals("<p>Kotlin</p>", itemWithFeed.body?.content?.decompress())
+        assertEquals(listOf("Item"), search("kotlin"))
+
+        // bodies are deleted with their item, and so is their index entry
+        database.itemDao().delete(itemWithFeed.item).blockingAwait()
+        assertEquals(listOf<String>(), search("kotlin"))
+        assertNull(database.itemDao().selectItems(ItemSelectionQueryBuilder.buildQuery(1, false)).firstOrNull())
+    }
+
+    @Test
+    fun longContentIndexTest() {
+        val content = "<p>" + "lorem ipsum ".repeat(10_000) + "</p><p>Conclusion</p>"
+        database.itemDao().insertWithBodies(listOf(Item(title = "Long", content = content, feedId = feedId)), ::htmlToText)
+
+        // the whole content text is indexed, not only its beginning
+        assertEquals(listOf("Long"), search("conclusion"))
+    }
+
+    private fun htmlToText(html: String) = html.replace(Regex("<[^>]*>"), " ")
+
+    private fun search(searchQuery: String): List<String?> {
+        val queryFilters = QueryFilters(accountId = accountId, searchQuery = searchQuery)
+
+        return database.itemDao().selectItems(ItemsQueryBuilder.buildSearchQuery(queryFilters, false))
+                .map { it.item.title }
+    }
+}
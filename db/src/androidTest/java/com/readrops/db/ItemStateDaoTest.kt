@@ -0,0 +1,132 @@
+package com.readrops.db
+
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.readrops.db.entities.Feed
+import com.readrops.db.entities.Item
+import com.readrops.db.entities.ItemState
+import com.readrops.db.entities.ItemStateChange
+import com.readrops.db.entities.account.Account
+import com.readrops.db.entities.account.AccountType
+import junit.framework.TestCase.assertEquals
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class ItemStateDaoTest {
+
+    private lateinit var database: Database
+
+    private var accountId = 0
+
+    @Before
+    fun createDb() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        database = Room.inMemoryDatabaseBuilder(context, Database::class.java)
+                .addCallback(DATABASE_CALLBACK)
+                .build()
+
+        accountId = database.accountDao().compatInsert(Account(accountType = AccountType.FRESHRSS)).toInt()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun replaceItemStatesTest() {
+        database.itemStateDao().insertItemStates(listOf(
+                ItemState(read = false, remoteId = "unchanged", accountId = accountId),
+                ItemState(read = true, starred = true, remoteId = "updated", accountId = accountId),
+                ItemState(read = true, remoteId = "deleted", accountId = accountId),
+        ))
+        val unchangedId = database.itemStateDao().selectItemStates(accountId).first { it.remoteId == "unchanged" }.id
+
+        database.itemStateDao().replaceItemStates(accountId, listOf(
+                ItemState(read = false, remoteId = "unchanged", accountId = accountId),
+                ItemState(read = true, remoteId = "updated", accountId = accountId),
+                ItemState(starred = true, remoteId = "inserted", accountId = accountId),
+        ))
+
+        val itemStates = database.itemStateDao().selectItemStates(accountId).associateBy { it.remoteId }
+        assertEquals(setOf("unchanged", "updated", "inserted"), itemStates.keys)
+
+        // unchanged states are not written again
+        assertEquals(unchangedId, itemStates.getValue("unchanged").id)
+        assertEquals(false, itemStates.getValue("unchanged").read)
+        assertEquals(false, itemStates.getValue("updated").starred)
+        assertEquals(true, itemStates.getValue("inserted").starred)
+    }
+
+    @Test
+    fun replaceDuplicatedItemStatesTest() {
+        database.itemStateDao().insertItemStates(listOf(
+                ItemState(read = false, remoteId = "duplicated", accountId = accountId),
+                ItemState(read = true, remoteId = "duplicated", accountId = accountId),
+                ItemState(read = true, remoteId = "updated", accountId = accountId),
+                ItemState(read = false, remoteId = "updated", accountId = accountId),
+        ))
+
+        database.itemStateDao().replaceItemStates(accountId, listOf(
+                ItemState(read = true, remoteId = "duplicated", accountId = accountId),
+                ItemState(read = true, remoteId = "updated", accountId = accountId),
+        ))
+
+        // one state is left per remote id, whichever of the duplicated rows matched the new state
+        val itemStates = database.itemStateDao().selectItemStates(accountId)
+        assertEquals(2, itemStates.size)
+        assertEquals(true, itemStates.all { it.read })
+    }
+
+    @Test
+    fun upsertItemsReadStateChangesTest() {
+        val feedId = database.feedDao().compatInsert(Feed(accountId = accountId)).toInt()
+        val itemIds = database.itemDao().insert((1..3).map { Item(remoteId = "$it", feedId = feedId) }).map { it.toInt() }
+        // the first item was marked as unread since the last sync, marking it as read cancels this change
+        database.itemStateChangesDao().insertItemStateChange(ItemStateChange(id = itemIds[0], readChange = true, accountId = accountId))
+
+        database.itemStateChangesDao().upsertItemsReadStateChanges(itemIds, true, accountId, false)
+        database.itemDao().setReadState(itemIds, true)
+
+        val changes = database.itemStateChangesDao().getNextcloudNewsStateChanges(accountId)
+        assertEquals(listOf("2", "3"), changes.map { it.remoteId }.sorted())
+        assertEquals(true, changes.all { it.read && it.readChange })
+    }
+
+    @Test
+    fun upsertItemsReadStateTest() {
+        val feedId = database.feedDao().compatInsert(Feed(accountId = accountId)).toInt()
+        val itemIds = database.itemDao().insert((1..2).map { Item(remoteId = "$it", feedId = feedId) }).map { it.toInt() }
+        database.itemStateDao().insertItemState(ItemState(read = false, starred = true, remoteId = "1", accountId = accountId))
+
+        database.itemStateDao().upsertItemsReadState(itemIds, true, accountId)
+
+        val itemStates = database.itemStateDao().selectItemStates(accountId).associateBy { it.remoteId }
+        assertEquals(ItemState(itemStates.getValue("1").id, true, true, "1", accountId), itemStates["1"])
+        // the second item had no state, the server doesn't have it as starred
+        assertEquals(ItemState(itemStates.getValue("2").id, true, false, "2", accountId), itemStates["2"])
+    }
+
+    @Test
+    fun clearPushedStateChangesTest() {
+        val feedId = database.feedDao().compatInsert(Feed(accountId = accountId)).toInt()
+        val itemIds = database.itemDao().insert((1..3).map { Item(remoteId = "$it", feedId = feedId) }).map { it.toInt() }
+        database.itemStateChangesDao().insertItemStateChanges(listOf(
+                ItemStateChange(id = itemIds[0], readChange = true, accountId = accountId),
+                ItemStateChange(id = itemIds[1], readChange = true, starChange = true, accountId = accountId),
+                ItemStateChange(id = itemIds[2], readChange = true, accountId = accountId),
+        ))
+
+        // the read state of the third item couldn't be pushed, as the star state of the second one
+        database.itemStateChangesDao().clearPushedStateChanges(listOf("1", "2"), listOf(), accountId)
+
+        assertEquals(false, database.itemStateChangesDao().itemStateChangeExists(itemIds[0], accountId))
+        assertEquals(ItemStateChange(itemIds[1], false, true, accountId), database.itemStateChangesDao().selectItemStateChange(itemIds[1]))
+        assertEquals(true, database.itemStateChangesDao().readStateChangeExists(itemIds[2]))
+    }
+}
@@ -6,6 +6,8 @@ import androidx.test.core.app.ApplicationProvider
 import androidx.test.ext.junit.runners.AndroidJUnit4
 import com.readrops.db.filters.FilterType
 import com.readrops.db.filters.ListSortType
+import com.readrops.db.queries.ItemKey
+import com.readrops.db.queries.ItemsPage
 import com.readrops.db.queries.ItemsQueryBuilder
 import com.readrops.db.queries.QueryFilters
 import junit.framework.TestCase.assertFalse
@@ -23,7 +25,9 @@ class ItemsQueryBuilderTest {
     @Before
     fun createDb() {
         val context = ApplicationProvider.getApplicationContext<Context>()
-        database = Room.inMemoryDatabaseBuilder(context, Database::class.java).build()
+        database = Room.inMemoryDatabaseBuilder(context, Database::class.java)
+                .addCallback(DATABASE_CALLBACK)
+                .build()
     }
 
     @After
@@ -119,6 +123,71 @@ class ItemsQueryBuilderTest {
         }
     }
 
+    @Test
+    fun pageQueryTest() {
+        val queryFilters = QueryFilters(accountId = 1)
+
+        val query = ItemsQueryBuilder.buildItemsPageQuery(queryFilters, false, ItemsPage(ItemKey(1000, 15), 100))
+        database.query(query)
+
+        with(query.sql) {
+            assertTrue(contains("(pub_date < 1000 Or (pub_date = 1000 And Item.id < 15))"))
+            assertTrue(contains("pub_date DESC, Item.id DESC"))
+            assertTrue(contains("LIMIT 100"))
+        }
+    }
+
+    @Test
+    fun pageBeforeQueryTest() {
+        val queryFilters = QueryFilters(accountId = 1)
+
+        val query = ItemsQueryBuilder.buildItemsPageQuery(queryFilters, false,
+                ItemsPage(ItemKey(1000, 15), 50, before = true, includeKey = true))
+        database.query(query)
+
+        with(query.sql) {
+            assertTrue(contains("(pub_date > 1000 Or (pub_date = 1000 And Item.id >= 15))"))
+            assertTrue(contains("pub_date ASC, Item.id ASC"))
+        }
+    }
+
+    @Test
+    fun searchQueryTest() {
+        val queryFilters = QueryFilters(accountId = 1, searchQuery = "Été, l'article")
+
+        val query = ItemsQueryBuilder.buildItemsQuery(queryFilters)
+        database.query(query)
+
+        with(query.sql) {
+            assertTrue(contains("Item.id In (Select docid From ItemFts Where ItemFts Match 'été* l* article*')"))
+            assertTrue(contains("pub_date DESC, Item.id DESC"))
+        }
+    }
+
+    @Test
+    fun rankedSearchQueryTest() {
+        val queryFilters = QueryFilters(accountId = 1, searchQuery = "android")
+
+        val query = ItemsQueryBuilder.buildSearchQuery(queryFilters, true)
+        database.query(query)
+
+        with(query.sql) {
+            assertTrue(contains("ItemFts Match 'android*'"))
+            assertTrue(contains("ItemFts Match 'title:android*'"))
+            assertTrue(contains("ItemFts Match 'clean_description:android*'"))
+        }
+    }
+
+    @Test
+    fun blankSearchQueryTest() {
+        val queryFilters = QueryFilters(accountId = 1, searchQuery = " ' ")
+
+        val query = ItemsQueryBuilder.buildSearchQuery(queryFilters, false)
+        database.query(query)
+
+        assertFalse(query.sql.contains("ItemFts"))
+    }
+
     @Test(expected = IllegalArgumentException::class)
     fun accountIdExceptionTest() {
         val queryFilters = QueryFilters()
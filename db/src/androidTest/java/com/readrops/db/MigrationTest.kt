@@ -0,0 +1,74 @@
+package com.readrops.db
+
+import androidx.room.testing.MigrationTestHelper
+import androidx.sqlite.db.SupportSQLiteDatabase
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.readrops.db.entities.account.AccountType
+import junit.framework.TestCase.assertEquals
+import junit.framework.TestCase.assertNull
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class MigrationTest {
+
+    @get:Rule
+    val helper = MigrationTestHelper(InstrumentationRegistry.getInstrumentation(),
+            Database::class.java.canonicalName, FrameworkSQLiteOpenHelperFactory())
+
+    @Test
+    fun migrateFrom3Test() {
+        helper.createDatabase(TEST_DB, 3).apply {
+            execSQL("Insert Into Account (id, account_type, last_modified, current_account, notifications_enabled) " +
+                    "Values (1, ${AccountType.LOCAL.ordinal}, 0, 1, 0)")
+            execSQL("Insert Into Feed (id, name, text_color, background_color, account_id) Values (1, 'Feed', 0, 0, 1)")
+            execSQL("Insert Into Item (id, title, description, clean_description, content, feed_id, read_time, read, starred, read_it_later) " +
+                    "Values (1, 'Android release', '<p>Description</p>', 'Description', '<p>Article <b>content</b></p>', 1, 0, 0, 1, 0)")
+            execSQL("Insert Into Item (id, title, feed_id, read_time, read, starred, read_it_later) " +
+                    "Values (2, 'Read item', 1, 0, 1, 0, 0)")
+            close()
+        }
+
+        // the schema of the last version is checked against 11.json, ItemFts and its view are not Room tables
+        val database = helper.runMigrationsAndValidate(TEST_DB, 11, false, *MIGRATIONS)
+
+        database.query("Select sync_interval, next_sync, failure_count, last_error, retention_pub_date From Feed").use {
+            it.moveToFirst()
+            assertEquals(0, it.getLong(0))
+            assertEquals(0, it.getLong(1))
+            assertEquals(0, it.getInt(2))
+            assertNull(it.getString(3))
+            assertEquals(0, it.getLong(4))
+        }
+
+        database.query("Select unread_count, starred_count From FeedCounter Where feed_id = 1").use {
+            it.moveToFirst()
+            assertEquals(1, it.getInt(0))
+            assertEquals(1, it.getInt(1))
+        }
+
+        database.query("Select description, content From ItemBody Where item_id = 1").use {
+            it.moveToFirst()
+            assertEquals("<p>Description</p>", CompressedText(it.getBlob(0)).decompress())
+            assertEquals("<p>Article <b>content</b></p>", CompressedText(it.getBlob(1)).decompress())
+        }
+
+        assertEquals(listOf(1), database.search("android"))
+        assertEquals(listOf(1), database.search("content"))
+        assertEquals(listOf(2), database.search("read"))
+    }
+
+    private fun SupportSQLiteDatabase.search(query: String): List<Int> =
+            query("Select docid From ItemFts Where ItemFts Match ? Order By docid", arrayOf(query)).use {
+                val ids = mutableListOf<Int>()
+                while (it.moveToNext()) ids += it.getInt(0)
+                ids
+            }
+
+    companion object {
+        private const val TEST_DB = "migration-test"
+    }
+}
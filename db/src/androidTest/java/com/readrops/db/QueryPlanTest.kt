@@ -0,0 +1,94 @@
+package com.readrops.db
+
+import android.content.Context
+import androidx.room.Room
+import androidx.sqlite.db.SimpleSQLiteQuery
+import androidx.sqlite.db.SupportSQLiteQuery
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.readrops.db.filters.FilterType
+import com.readrops.db.filters.ListSortType
+import com.readrops.db.queries.ItemKey
+import com.readrops.db.queries.ItemSelectionQueryBuilder
+import com.readrops.db.queries.ItemsPage
+import com.readrops.db.queries.ItemsQueryBuilder
+import com.readrops.db.queries.QueryFilters
+import junit.framework.TestCase.assertFalse
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Checks with EXPLAIN QUERY PLAN that the items queries don't scan whole tables
+ */
+@RunWith(AndroidJUnit4::class)
+class QueryPlanTest {
+
+    private lateinit var database: Database
+
+    @Before
+    fun createDb() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        database = Room.inMemoryDatabaseBuilder(context, Database::class.java)
+                .addCallback(DATABASE_CALLBACK)
+                .build()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun itemsQueriesTest() {
+        for (filterType in FilterType.values()) {
+            for (showReadItems in listOf(true, false)) {
+                for (sortType in ListSortType.values()) {
+                    for (separateState in listOf(true, false)) {
+                        val queryFilters = QueryFilters(accountId = 1, filterType = filterType, filterFeedId = 1,
+                                filterFolderId = 1, showReadItems = showReadItems, sortType = sortType)
+
+                        assertNoScan(ItemsQueryBuilder.buildItemsQuery(queryFilters, separateState))
+                        assertNoScan(ItemsQueryBuilder.buildItemsPageQuery(queryFilters, separateState,
+                                ItemsPage(null, 100)))
+                        assertNoScan(ItemsQueryBuilder.buildItemsPageQuery(queryFilters, separateState,
+                                ItemsPage(ItemKey(1000, 1), 100)))
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    fun searchQueriesTest() {
+        for (filterType in FilterType.values()) {
+            for (separateState in listOf(true, false)) {
+                val queryFilters = QueryFilters(accountId = 1, filterType = filterType, filterFeedId = 1,
+                        filterFolderId = 1, searchQuery = "android news")
+
+                assertNoScan(ItemsQueryBuilder.buildSearchQuery(queryFilters, separateState))
+                assertNoScan(ItemsQueryBuilder.buildItemsPageQuery(queryFilters, separateState,
+                        ItemsPage(ItemKey(1000, 1), 100)))
+            }
+        }
+    }
+
+    @Test
+    fun itemSelectionQueryTest() {
+        assertNoScan(ItemSelectionQueryBuilder.buildQuery(1, false))
+        assertNoScan(ItemSelectionQueryBuilder.buildQuery(1, true))
+    }
+
+    private fun assertNoScan(query: SupportSQLiteQuery) {
+        database.query(SimpleSQLiteQuery("EXPLAIN QUERY PLAN ${query.sql}")).use { cursor ->
+            val detailIndex = cursor.getColumnIndex("detail")
+
+            while (cursor.moveToNext()) {
+                val detail = cursor.getString(detailIndex)
+                // full-text matches are reported as virtual table scans
+                assertFalse("${query.sql} : $detail", detail.startsWith("SCAN") && !detail.contains("VIRTUAL TABLE"))
+            }
+        }
+    }
+}
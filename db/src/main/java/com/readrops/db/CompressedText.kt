@@ -0,0 +1,64 @@
+package com.readrops.db
+
+import java.io.ByteArrayOutputStream
+import java.util.zip.Deflater
+import java.util.zip.Inflater
+
+/**
+ * Text stored compressed with deflate, as a blob, see [Converters].
+ * It is only decompressed when it is needed, an article body is rendered only once opened.
+ */
+class CompressedText(val bytes: ByteArray) {
+
+    fun decompress(): String {
+        val inflater = Inflater(true)
+        inflater.setInput(bytes)
+
+        val output = ByteArrayOutputStream(bytes.size * 4)
+        val buffer = ByteArray(BUFFER_SIZE)
+
+        try {
+            while (!inflater.finished()) {
+                val count = inflater.inflate(buffer)
+                // raw deflate streams may not be marked as finished once the whole input is read
+                if (count == 0 && inflater.needsInput()) break
+
+                output.write(buffer, 0, count)
+            }
+        } finally {
+            inflater.end()
+        }
+
+        return output.toString(Charsets.UTF_8.name())
+    }
+
+    companion object {
+
+        private const val BUFFER_SIZE = 8192
+
+        /**
+         * Raw deflate, without zlib header and checksum which weigh on short texts
+         */
+        @JvmStatic
+        fun compress(text: String): CompressedText {
+            val input = text.toByteArray(Charsets.UTF_8)
+
+            val deflater = Deflater(Deflater.DEFAULT_COMPRESSION, true)
+            deflater.setInput(input)
+            deflater.finish()
+
+            val output = ByteArrayOutputStream(input.size / 2 + 64)
+            val buffer = ByteArray(BUFFER_SIZE)
+
+            try {
+                while (!deflater.finished()) {
+                    output.write(buffer, 0, deflater.deflate(buffer))
+                }
+            } finally {
+                deflater.end()
+            }
+
+            return CompressedText(output.toByteArray())
+        }
+    }
+}
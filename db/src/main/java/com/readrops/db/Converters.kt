@@ -25,4 +25,14 @@ object Converters {
     fun getAccountTypeCode(accountType: AccountType): Int {
         return accountType.ordinal
     }
+
+    @TypeConverter
+    fun fromCompressedBytes(bytes: ByteArray?): CompressedText? {
+        return bytes?.let { CompressedText(it) }
+    }
+
+    @TypeConverter
+    fun getCompressedBytes(compressedText: CompressedText?): ByteArray? {
+        return compressedText?.bytes
+    }
 }
\ No newline at end of file
@@ -9,7 +9,7 @@ import com.readrops.db.entities.account.Account
 import dev.matrix.roomigrant.GenerateRoomMigrations
 
 @Database(entities = [Feed::class, Item::class, Folder::class, Account::class,
-    ItemStateChange::class, ItemState::class], version = 3)
+    ItemStateChange::class, ItemState::class, FeedCounter::class, ItemBody::class], version = 11)
 @TypeConverters(Converters::class)
 @GenerateRoomMigrations
 abstract class Database : RoomDatabase() {
@@ -24,4 +24,6 @@ abstract class Database : RoomDatabase() {
     abstract fun itemStateDao(): ItemStateDao
 
     abstract fun itemStateChangesDao(): ItemStateChangeDao
+
+    abstract fun feedCounterDao(): FeedCounterDao
 }
\ No newline at end of file
@@ -7,7 +7,8 @@ val dbModule = module {
 
     single(createdAtStart = true) {
         Room.databaseBuilder(get(), Database::class.java, "readrops-db")
-                .addMigrations(*Database_Migrations.build())
+                .addMigrations(*Database_Migrations.build(), *MIGRATIONS)
+                .addCallback(DATABASE_CALLBACK)
                 .build()
     }
 }
\ No newline at end of file
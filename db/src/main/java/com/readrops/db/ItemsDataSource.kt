@@ -0,0 +1,86 @@
+package com.readrops.db
+
+import android.annotation.SuppressLint
+import androidx.paging.DataSource
+import androidx.paging.ItemKeyedDataSource
+import androidx.room.InvalidationTracker
+import com.readrops.db.pojo.ItemWithFeed
+import com.readrops.db.queries.ItemKey
+import com.readrops.db.queries.ItemsPage
+import com.readrops.db.queries.ItemsQueryBuilder
+import com.readrops.db.queries.QueryFilters
+
+/**
+ * Items list data source paging on (pub_date, id) keys instead of offsets,
+ * so loading a page costs the same whatever the scroll depth.
+ * It is invalidated when one of the tables of the items query changes.
+ */
+class ItemsDataSource(
+        private val database: Database,
+        private val queryFilters: QueryFilters,
+        private val separateState: Boolean,
+) : ItemKeyedDataSource<ItemKey, ItemWithFeed>() {
+
+    private val observer = object : InvalidationTracker.Observer(OBSERVED_TABLES) {
+        override fun onInvalidated(tables: MutableSet<String>) = invalidate()
+    }
+
+    init {
+        observeTables()
+    }
+
+    /**
+     * The tracker only keeps a weak reference to the observer, as for Room's own data sources.
+     * It is removed once the data source is dropped, invalidated or not.
+     */
+    @SuppressLint("RestrictedApi")
+    private fun observeTables() = database.invalidationTracker.addWeakObserver(observer)
+
+    override fun loadInitial(params: LoadInitialParams<ItemKey>, callback: LoadInitialCallback<ItemWithFeed>) {
+        val key = params.requestedInitialKey
+
+        if (key == null) {
+            callback.onResult(loadPage(ItemsPage(null, params.requestedLoadSize)))
+        } else {
+            // start half a load before the key, the list doesn't move when it is reloaded after an update
+            val before = loadPage(ItemsPage(key, params.requestedLoadSize / 2, before = true)).asReversed()
+            val after = loadPage(ItemsPage(key, params.requestedLoadSize - before.size, includeKey = true))
+
+            callback.onResult(before + after)
+        }
+    }
+
+    override fun loadAfter(params: LoadParams<ItemKey>, callback: LoadCallback<ItemWithFeed>) {
+        callback.onResult(loadPage(ItemsPage(params.key, params.requestedLoadSize)))
+    }
+
+    override fun loadBefore(params: LoadParams<ItemKey>, callback: LoadCallback<ItemWithFeed>) {
+        callback.onResult(loadPage(ItemsPage(params.key, params.requestedLoadSize, before = true)).asReversed())
+    }
+
+    override fun getKey(item: ItemWithFeed): ItemKey =
+            ItemKey(item.item.pubDate?.let { Converters.fromLocalDateTime(it) } ?: 0, item.item.id)
+
+    private fun loadPage(page: ItemsPage): List<ItemWithFeed> =
+            if (isInvalid) listOf()
+            else database.itemDao().selectItems(ItemsQueryBuilder.buildItemsPageQuery(queryFilters, separateState, page))
+
+    companion object {
+
+        private val OBSERVED_TABLES = arrayOf("Item", "Feed", "Folder", "ItemState")
+
+        /**
+         * @param queryFilters copied, later changes don't affect the data sources created by the factory
+         */
+        @JvmStatic
+        fun factory(database: Database, queryFilters: QueryFilters, separateState: Boolean): DataSource.Factory<ItemKey, ItemWithFeed> {
+            val filters = with(queryFilters) {
+                QueryFilters(showReadItems, filterFeedId, filterFolderId, accountId, filterType, sortType, searchQuery)
+            }
+
+            return object : DataSource.Factory<ItemKey, ItemWithFeed>() {
+                override fun create(): DataSource<ItemKey, ItemWithFeed> = ItemsDataSource(database, filters, separateState)
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.readrops.db
+
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
+import com.readrops.db.entities.ItemBody
+
+val MIGRATION_3_4 = object : Migration(3, 4) {
+    override fun migrate(database: SupportSQLiteDatabase) {
+        database.execSQL("ALTER TABLE `Feed` ADD COLUMN `sync_interval` INTEGER NOT NULL DEFAULT 0")
+        database.execSQL("ALTER TABLE `Feed` ADD COLUMN `next_sync` INTEGER NOT NULL DEFAULT 0")
+    }
+}
+
+val MIGRATION_4_5 = object : Migration(4, 5) {
+    override fun migrate(database: SupportSQLiteDatabase) {
+        database.execSQL("ALTER TABLE `Feed` ADD COLUMN `failure_count` INTEGER NOT NULL DEFAULT 0")
+        database.execSQL("ALTER TABLE `Feed` ADD COLUMN `last_error` TEXT")
+    }
+}
+
+val MIGRATION_5_6 = object : Migration(5, 6) {
+    override fun migrate(database: SupportSQLiteDatabase) {
+        database.execSQL("CREATE TABLE IF NOT EXISTS `FeedCounter` (`feed_id` INTEGER NOT NULL, " +
+                "`unread_count` INTEGER NOT NULL DEFAULT 0, `starred_count` INTEGER NOT NULL DEFAULT 0, " +
+                "`state_unread_count` INTEGER NOT NULL DEFAULT 0, `state_starred_count` INTEGER NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY(`feed_id`), FOREIGN KEY(`feed_id`) REFERENCES `Feed`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )")
+        database.execSQL("CREATE INDEX IF NOT EXISTS `index_Item_remoteId` ON `Item` (`remoteId`)")
+        database.execSQL("CREATE INDEX IF NOT EXISTS `index_ItemState_remote_id` ON `ItemState` (`remote_id`)")
+
+        database.execSQL(FEED_COUNTER_BACKFILL)
+        FEED_COUNTER_TRIGGERS.forEach { database.execSQL(it) }
+    }
+}
+
+/**
+ * Indexes matching the items list queries, the feed_id one is replaced by a composite index starting with it
+ */
+val MIGRATION_6_7 = object : Migration(6, 7) {
+    override fun migrate(database: SupportSQLiteDatabase) {
+        database.execSQL("DROP INDEX IF EXISTS `index_Item_feed_id`")
+        database.execSQL("CREATE INDEX IF NOT EXISTS `index_Item_feed_id_read_it_later_pub_date` ON `Item` (`feed_id`, `read_it_later`, `pub_date`)")
+        database.execSQL("CREATE INDEX IF NOT EXISTS `index_Item_read_it_later_pub_date` ON `Item` (`read_it_later`, `pub_date`)")
+        database.execSQL("CREATE INDEX IF NOT EXISTS `index_Item_read_read_it_later_pub_date` ON `Item` (`read`, `read_it_later`, `pub_date`)")
+        database.execSQL("CREATE INDEX IF NOT EXISTS `index_Item_starred_read_it_later_pub_date` ON `Item` (`starred`, `read_it_later`, `pub_date`)")
+    }
+}
+
+/**
+ * Full-text search index of the items
+ */
+val MIGRATION_7_8 = object : Migration(7, 8) {
+    override fun migrate(database: SupportSQLiteDatabase) {
+        // version 8 index, replaced in version 9
+        database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS ItemFts " +
+                "USING FTS4(title, clean_description, content, content=`Item`, tokenize=unicode61)")
+        database.execSQL(ITEM_FTS_REBUILD)
+
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS item_fts_insert AFTER INSERT ON Item BEGIN " +
+                "Insert Into ItemFts (docid, title, clean_description, content) Values (new.id, new.title, new.clean_description, new.content); END")
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS item_fts_delete BEFORE DELETE ON Item BEGIN " +
+                "Delete From ItemFts Where docid = old.id; END")
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS item_fts_before_update BEFORE UPDATE OF title, clean_description, content ON Item BEGIN " +
+                "Delete From ItemFts Where docid = old.id; END")
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS item_fts_after_update AFTER UPDATE OF title, clean_description, content ON Item BEGIN " +
+                "Insert Into ItemFts (docid, title, clean_description, content) Values (new.id, new.title, new.clean_description, new.content); END")
+    }
+}
+
+/**
+ * Item description and content are moved to ItemBody.
+ * SQLite can't drop columns before 3.35, so the Item table is created again without them.
+ * Foreign keys are not enforced during migrations, dropping Item doesn't delete the bodies.
+ */
+val MIGRATION_8_9 = object : Migration(8, 9) {
+    override fun migrate(database: SupportSQLiteDatabase) {
+        database.execSQL("DROP TABLE IF EXISTS ItemFts")
+
+        database.execSQL("CREATE TABLE IF NOT EXISTS `ItemBody` (`item_id` INTEGER NOT NULL, `description` TEXT, `content` TEXT, " +
+                "PRIMARY KEY(`item_id`), FOREIGN KEY(`item_id`) REFERENCES `Item`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )")
+        database.execSQL("INSERT INTO ItemBody (item_id, description, content) SELECT id, description, content FROM Item")
+
+        database.execSQL("CREATE TABLE IF NOT EXISTS `Item_new` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `title` TEXT, " +
+                "`clean_description` TEXT, `link` TEXT, `image_link` TEXT, `author` TEXT, `pub_date` INTEGER, `feed_id` INTEGER NOT NULL, " +
+                "`guid` TEXT, `read_time` REAL NOT NULL, `read` INTEGER NOT NULL, `starred` INTEGER NOT NULL, " +
+                "`read_it_later` INTEGER NOT NULL, `remoteId` TEXT, " +
+                "FOREIGN KEY(`feed_id`) REFERENCES `Feed`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )")
+        database.execSQL("INSERT INTO Item_new (id, title, clean_description, link, image_link, author, pub_date, feed_id, guid, " +
+                "read_time, read, starred, read_it_later, remoteId) SELECT id, title, clean_description, link, image_link, author, " +
+                "pub_date, feed_id, guid, read_time, read, starred, read_it_later, remoteId FROM Item")
+        // triggers referencing Item would prevent its renaming, they are created again below
+        database.execSQL("DROP TRIGGER IF EXISTS feed_counter_item_state_insert")
+        database.execSQL("DROP TRIGGER IF EXISTS feed_counter_item_state_delete")
+        database.execSQL("DROP TRIGGER IF EXISTS feed_counter_item_state_update")
+        database.execSQL("DROP TABLE Item")
+        database.execSQL("ALTER TABLE Item_new RENAME TO Item")
+
+        database.execSQL("CREATE INDEX IF NOT EXISTS `index_Item_guid` ON `Item` (`guid`)")
+        database.execSQL("CREATE INDEX IF NOT EXISTS `index_Item_remoteId` ON `Item` (`remoteId`)")
+        database.execSQL("CREATE INDEX IF NOT EXISTS `index_Item_feed_id_read_it_later_pub_date` ON `Item` (`feed_id`, `read_it_later`, `pub_date`)")
+        database.execSQL("CREATE INDEX IF NOT EXISTS `index_Item_read_it_later_pub_date` ON `Item` (`read_it_later`, `pub_date`)")
+        database.execSQL("CREATE INDEX IF NOT EXISTS `index_Item_read_read_it_later_pub_date` ON `Item` (`read`, `read_it_later`, `pub_date`)")
+        database.execSQL("CREATE INDEX IF NOT EXISTS `index_Item_starred_read_it_later_pub_date` ON `Item` (`starred`, `read_it_later`, `pub_date`)")
+
+        FEED_COUNTER_TRIGGERS.forEach { database.execSQL(it) }
+
+        database.execSQL(itemFtsContentView("content"))
+        database.execSQL(ITEM_FTS_TABLE)
+        database.execSQL(ITEM_FTS_REBUILD)
+        itemFtsTriggers("content").forEach { database.execSQL(it) }
+    }
+}
+
+private val HTML_TAG = Regex("<[^>]*>")
+
+/**
+ * Text of the migrated contents, tags are replaced by spaces and the common entities decoded.
+ * Much cheaper than an html parser over all the stored bodies, the index only needs the words.
+ */
+private fun htmlToSearchText(html: String) = html.replace(HTML_TAG, " ")
+        .replace("&nbsp;", " ")
+        .replace("&lt;", "<")
+        .replace("&gt;", ">")
+        .replace("&quot;", "\"")
+        .replace("&#39;", "'")
+        .replace("&amp;", "&")
+
+val MIGRATION_9_10 = object : Migration(9, 10) {
+    override fun migrate(database: SupportSQLiteDatabase) {
+        // the index reads ItemBody through its view, they are created again once the bodies are compressed
+        database.execSQL("DROP TRIGGER IF EXISTS item_fts_insert")
+        database.execSQL("DROP TRIGGER IF EXISTS item_fts_delete")
+        database.execSQL("DROP TRIGGER IF EXISTS item_fts_before_update")
+        database.execSQL("DROP TRIGGER IF EXISTS item_fts_after_update")
+        database.execSQL("DROP TRIGGER IF EXISTS item_body_fts_before_insert")
+        database.execSQL("DROP TRIGGER IF EXISTS item_body_fts_after_insert")
+        database.execSQL("DROP TRIGGER IF EXISTS item_body_fts_before_update")
+        database.execSQL("DROP TRIGGER IF EXISTS item_body_fts_after_update")
+        database.execSQL("DROP VIEW IF EXISTS ItemFtsContent")
+        database.execSQL("DROP TABLE IF EXISTS ItemFts")
+
+        database.execSQL("CREATE TABLE IF NOT EXISTS `ItemBody_new` (`item_id` INTEGER NOT NULL, `description` BLOB, `content` BLOB, " +
+                "`search_text` TEXT, PRIMARY KEY(`item_id`), " +
+                "FOREIGN KEY(`item_id`) REFERENCES `Item`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )")
+
+        val statement = database.compileStatement("INSERT INTO ItemBody_new (item_id, description, content, search_text) " +
+                "VALUES (?, ?, ?, ?)")
+        database.query("SELECT item_id, description, content FROM ItemBody").use { cursor ->
+            while (cursor.moveToNext()) {
+                // html is parsed by the api module, new items get its text extraction
+                val body = ItemBody.create(cursor.getInt(0), cursor.getString(1), cursor.getString(2), ::htmlToSearchText)
+
+                statement.clearBindings()
+                statement.bindLong(1, body.itemId.toLong())
+                body.description?.let { statement.bindBlob(2, it.bytes) }
+                body.content?.let { statement.bindBlob(3, it.bytes) }
+                body.searchText?.let { statement.bindString(4, it) }
+                statement.executeInsert()
+            }
+        }
+
+        database.execSQL("DROP TABLE ItemBody")
+        database.execSQL("ALTER TABLE ItemBody_new RENAME TO ItemBody")
+
+        database.execSQL(ITEM_FTS_CONTENT_VIEW)
+        database.execSQL(ITEM_FTS_TABLE)
+        database.execSQL(ITEM_FTS_REBUILD)
+        ITEM_FTS_TRIGGERS.forEach { database.execSQL(it) }
+    }
+}
+
+val MIGRATION_10_11 = object : Migration(10, 11) {
+    override fun migrate(database: SupportSQLiteDatabase) {
+        database.execSQL("ALTER TABLE `Feed` ADD COLUMN `retention_pub_date` INTEGER NOT NULL DEFAULT 0")
+    }
+}
+
+/**
+ * Migrations written by hand, they replace the ones generated by Roomigrant for the same versions
+ */
+val MIGRATIONS = arrayOf(MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10,
+        MIGRATION_10_11)
@@ -0,0 +1,149 @@
+package com.readrops.db
+
+import androidx.room.RoomDatabase
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+private fun itemStateCount(item: String, state: String) =
+        "(Select count(*) From ItemState Where remote_id = $item.remoteId " +
+                "And account_id = (Select account_id From Feed Where id = $item.feed_id) And $state)"
+
+private fun itemCounterUpdate(item: String, operator: Char) = """
+    Update FeedCounter Set unread_count = unread_count $operator ($item.read = 0),
+        starred_count = starred_count $operator ($item.starred = 1),
+        state_unread_count = state_unread_count $operator ${itemStateCount(item, "read = 0")},
+        state_starred_count = state_starred_count $operator ${itemStateCount(item, "starred = 1")}
+    Where feed_id = $item.feed_id;
+""".trimIndent()
+
+private fun itemStateCounterUpdate(state: String, operator: Char): String {
+    val itemCount = "(Select count(*) From Item Where Item.remoteId = $state.remote_id And Item.feed_id = FeedCounter.feed_id)"
+
+    return """
+        Update FeedCounter Set state_unread_count = state_unread_count $operator ($state.read = 0) * $itemCount,
+            state_starred_count = state_starred_count $operator ($state.starred = 1) * $itemCount
+        Where feed_id In (Select Item.feed_id From Item Inner Join Feed On Item.feed_id = Feed.id
+            Where Item.remoteId = $state.remote_id And Feed.account_id = $state.account_id);
+    """.trimIndent()
+}
+
+/**
+ * Triggers keeping [com.readrops.db.entities.FeedCounter] consistent with Item and ItemState rows
+ */
+val FEED_COUNTER_TRIGGERS = arrayOf(
+        """CREATE TRIGGER IF NOT EXISTS feed_counter_feed_insert AFTER INSERT ON Feed BEGIN
+            Insert Or Ignore Into FeedCounter (feed_id) Values (new.id);
+        END""",
+        """CREATE TRIGGER IF NOT EXISTS feed_counter_item_insert AFTER INSERT ON Item BEGIN
+            ${itemCounterUpdate("new", '+')}
+        END""",
+        """CREATE TRIGGER IF NOT EXISTS feed_counter_item_delete AFTER DELETE ON Item BEGIN
+            ${itemCounterUpdate("old", '-')}
+        END""",
+        """CREATE TRIGGER IF NOT EXISTS feed_counter_item_update AFTER UPDATE OF read, starred, remoteId, feed_id ON Item BEGIN
+            ${itemCounterUpdate("old", '-')}
+            ${itemCounterUpdate("new", '+')}
+        END""",
+        """CREATE TRIGGER IF NOT EXISTS feed_counter_item_state_insert AFTER INSERT ON ItemState BEGIN
+            ${itemStateCounterUpdate("new", '+')}
+        END""",
+        """CREATE TRIGGER IF NOT EXISTS feed_counter_item_state_delete AFTER DELETE ON ItemState BEGIN
+            ${itemStateCounterUpdate("old", '-')}
+        END""",
+        """CREATE TRIGGER IF NOT EXISTS feed_counter_item_state_update AFTER UPDATE OF read, starred, remote_id, account_id ON ItemState BEGIN
+            ${itemStateCounterUpdate("old", '-')}
+            ${itemStateCounterUpdate("new", '+')}
+        END""",
+)
+
+/**
+ * Counts of existing items, used to fill FeedCounter when it is created
+ */
+const val FEED_COUNTER_BACKFILL = """Insert Or Replace Into FeedCounter (feed_id, unread_count, starred_count, state_unread_count, state_starred_count)
+    Select Feed.id,
+        (Select count(*) From Item Where feed_id = Feed.id And read = 0),
+        (Select count(*) From Item Where feed_id = Feed.id And starred = 1),
+        (Select count(*) From Item Inner Join ItemState On Item.remoteId = ItemState.remote_id And ItemState.account_id = Feed.account_id
+            Where Item.feed_id = Feed.id And ItemState.read = 0),
+        (Select count(*) From Item Inner Join ItemState On Item.remoteId = ItemState.remote_id And ItemState.account_id = Feed.account_id
+            Where Item.feed_id = Feed.id And ItemState.starred = 1)
+    From Feed"""
+
+/**
+ * Indexed text of the items, title and description from Item and content text from ItemBody.
+ * Its rowid column is the item id, used by ItemFts to read a row when it is indexed again or deleted.
+ *
+ * @param bodyTextColumn ItemBody column holding the content text, the content itself until it was compressed
+ */
+internal fun itemFtsContentView(bodyTextColumn: String) = """CREATE VIEW IF NOT EXISTS ItemFtsContent AS
+    Select Item.id As rowid, Item.title As title, Item.clean_description As clean_description, ItemBody.$bodyTextColumn As content
+    From Item Left Join ItemBody On ItemBody.item_id = Item.id"""
+
+val ITEM_FTS_CONTENT_VIEW = itemFtsContentView("search_text")
+
+/**
+ * Full-text index of the items, in external content mode so the text is not stored twice.
+ * Its docid is the item id.
+ */
+const val ITEM_FTS_TABLE = """CREATE VIRTUAL TABLE IF NOT EXISTS ItemFts
+    USING FTS4(title, clean_description, content, content=`ItemFtsContent`, tokenize=unicode61)"""
+
+private fun itemFtsInsert(itemId: String) = """
+    Insert Into ItemFts (docid, title, clean_description, content)
+        Select rowid, title, clean_description, content From ItemFtsContent Where rowid = $itemId;
+""".trimIndent()
+
+/**
+ * Triggers keeping ItemFts consistent with Item and ItemBody rows, changes of other columns than the indexed ones are ignored.
+ * An item is indexed without its content when inserted, then again with it when its body is inserted.
+ * Bodies are only deleted with their item, whose deletion removes them from the index.
+ *
+ * @param bodyTextColumn see [itemFtsContentView]
+ */
+internal fun itemFtsTriggers(bodyTextColumn: String) = arrayOf(
+        """CREATE TRIGGER IF NOT EXISTS item_fts_insert AFTER INSERT ON Item BEGIN
+            Insert Into ItemFts (docid, title, clean_description) Values (new.id, new.title, new.clean_description);
+        END""",
+        """CREATE TRIGGER IF NOT EXISTS item_fts_delete BEFORE DELETE ON Item BEGIN
+            Delete From ItemFts Where docid = old.id;
+        END""",
+        """CREATE TRIGGER IF NOT EXISTS item_fts_before_update BEFORE UPDATE OF title, clean_description ON Item BEGIN
+            Delete From ItemFts Where docid = old.id;
+        END""",
+        """CREATE TRIGGER IF NOT EXISTS item_fts_after_update AFTER UPDATE OF title, clean_description ON Item BEGIN
+            ${itemFtsInsert("new.id")}
+        END""",
+        """CREATE TRIGGER IF NOT EXISTS item_body_fts_before_insert BEFORE INSERT ON ItemBody BEGIN
+            Delete From ItemFts Where docid = new.item_id;
+        END""",
+        """CREATE TRIGGER IF NOT EXISTS item_body_fts_after_insert AFTER INSERT ON ItemBody BEGIN
+            ${itemFtsInsert("new.item_id")}
+        END""",
+        """CREATE TRIGGER IF NOT EXISTS item_body_fts_before_update BEFORE UPDATE OF $bodyTextColumn ON ItemBody BEGIN
+            Delete From ItemFts Where docid = old.item_id;
+        END""",
+        """CREATE TRIGGER IF NOT EXISTS item_body_fts_after_update AFTER UPDATE OF $bodyTextColumn ON ItemBody BEGIN
+            ${itemFtsInsert("new.item_id")}
+        END""",
+)
+
+val ITEM_FTS_TRIGGERS = itemFtsTriggers("search_text")
+
+/**
+ * Index the existing items
+ */
+const val ITEM_FTS_REBUILD = "Insert Into ItemFts (ItemFts) Values ('rebuild')"
+
+/**
+ * Room can't declare triggers, they are created with the database and by the migrations for existing installs.
+ * ItemFts is created here too, a Room FTS entity would reindex an item on any column update.
+ */
+val DATABASE_CALLBACK = object : RoomDatabase.Callback() {
+
+    override fun onCreate(db: SupportSQLiteDatabase) {
+        FEED_COUNTER_TRIGGERS.forEach { db.execSQL(it) }
+
+        db.execSQL(ITEM_FTS_CONTENT_VIEW)
+        db.execSQL(ITEM_FTS_TABLE)
+        ITEM_FTS_TRIGGERS.forEach { db.execSQL(it) }
+    }
+}
@@ -0,0 +1,21 @@
+package com.readrops.db.dao
+
+import androidx.room.Dao
+import androidx.room.Query
+import com.readrops.db.entities.FeedCounter
+import com.readrops.db.pojo.FeedUnreadCount
+
+@Dao
+interface FeedCounterDao {
+
+    @Query("Select * From FeedCounter Where feed_id = :feedId")
+    fun select(feedId: Int): FeedCounter?
+
+    @Query("Select FeedCounter.feed_id, unread_count From FeedCounter Inner Join Feed On FeedCounter.feed_id = Feed.id " +
+            "Where Feed.account_id = :accountId And unread_count > 0")
+    fun getUnreadCounts(accountId: Int): List<FeedUnreadCount>
+
+    @Query("Select FeedCounter.feed_id, state_unread_count as unread_count From FeedCounter " +
+            "Inner Join Feed On FeedCounter.feed_id = Feed.id Where Feed.account_id = :accountId And state_unread_count > 0")
+    fun getSeparateStateUnreadCounts(accountId: Int): List<FeedUnreadCount>
+}
@@ -49,6 +49,25 @@ abstract class FeedDao : BaseDao<Feed> {
     @Query("Update Feed set etag = :etag, last_modified = :lastModified Where id = :feedId")
     abstract fun updateHeaders(etag: String, lastModified: String, feedId: Int)
 
+    @Query("Select * from Feed Where account_id = :accountId And next_sync <= :time order by name ASC")
+    abstract fun getFeedsToSync(accountId: Int, time: Long): List<Feed>
+
+    /**
+     * Select the feeds of an account, except the ones which failed too many times in a row
+     * and are still waiting for their backoff delay
+     */
+    @Query("Select * from Feed Where account_id = :accountId And (failure_count < :maxFailureCount Or next_sync <= :time) order by name ASC")
+    abstract fun getFeedsNotQuarantined(accountId: Int, maxFailureCount: Int, time: Long): List<Feed>
+
+    @Query("Update Feed set sync_interval = :syncInterval, next_sync = :nextSync, failure_count = 0, last_error = null Where id = :feedId")
+    abstract fun updateSyncSchedule(feedId: Int, syncInterval: Long, nextSync: Long)
+
+    @Query("Update Feed set failure_count = :failureCount, last_error = :lastError, next_sync = :nextSync Where id = :feedId")
+    abstract fun updateSyncFailure(feedId: Int, failureCount: Int, lastError: String?, nextSync: Long)
+
+    @Query("Update Feed set retention_pub_date = max(retention_pub_date, :pubDate) Where id = :feedId")
+    abstract fun updateRetentionPubDate(feedId: Int, pubDate: Long)
+
     @Query("Update Feed set name = :feedName, url = :feedUrl, folder_id = :folderId Where id = :feedId")
     abstract fun updateFeedFields(feedId: Int, feedName: String, feedUrl: String, folderId: Int)
 
@@ -61,7 +80,7 @@ abstract class FeedDao : BaseDao<Feed> {
     @SuppressWarnings(RoomWarnings.CURSOR_MISMATCH)
     @Query("Select Feed.name as feed_name, Feed.id as feed_id, Folder.name as folder_name, Folder.id as folder_id, Folder.remoteId as folder_remoteId, Folder.account_id as folder_account_id," +
             "Feed.description as feed_description, Feed.icon_url as feed_icon_url, Feed.url as feed_url, Feed.folder_id as feed_folder_id, Feed.text_color as feed_text_color, Feed.background_color as feed_background_color" +
-            ", Feed.account_id as feed_account_id, Feed.notification_enabled as feed_notification_enabled, Feed.siteUrl as feed_siteUrl, Feed.remoteId as feed_remoteId from Feed Left Join Folder on Feed.folder_id = Folder.id Where Feed.account_id = :accountId Order by Feed.name")
+            ", Feed.account_id as feed_account_id, Feed.notification_enabled as feed_notification_enabled, Feed.siteUrl as feed_siteUrl, Feed.remoteId as feed_remoteId, Feed.failure_count as feed_failure_count, Feed.last_error as feed_last_error from Feed Left Join Folder on Feed.folder_id = Folder.id Where Feed.account_id = :accountId Order by Feed.name")
     abstract fun getAllFeedsWithFolder(accountId: Int): LiveData<List<FeedWithFolder>>
 
     @SuppressWarnings(RoomWarnings.CURSOR_MISMATCH)
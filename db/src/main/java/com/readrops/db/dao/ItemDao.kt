@@ -3,22 +3,53 @@ package com.readrops.db.dao
 import androidx.lifecycle.LiveData
 import androidx.paging.DataSource
 import androidx.room.Dao
+import androidx.room.Insert
 import androidx.room.Query
 import androidx.room.RawQuery
+import androidx.room.Transaction
 import androidx.sqlite.db.SupportSQLiteQuery
 import com.readrops.db.entities.Feed
 import com.readrops.db.entities.Folder
 import com.readrops.db.entities.Item
+import com.readrops.db.entities.ItemBody
 import com.readrops.db.entities.ItemState
+import com.readrops.db.pojo.FeedUnreadCount
 import com.readrops.db.pojo.ItemWithFeed
 import com.readrops.db.pojo.StarItem
 import io.reactivex.Completable
 
+/**
+ * Maximum number of guids or ids bound in a single query, SQLite limits bound parameters to 999
+ */
+private const val IDS_CHUNK_SIZE = 900
+
 @Dao
 interface ItemDao : BaseDao<Item> {
 
-    @RawQuery(observedEntities = [Item::class, Folder::class, Feed::class, ItemState::class])
-    fun selectAll(query: SupportSQLiteQuery): DataSource.Factory<Int?, ItemWithFeed>
+    @RawQuery
+    fun selectItems(query: SupportSQLiteQuery): List<ItemWithFeed>
+
+    @Insert
+    fun insertBodies(bodies: List<ItemBody>)
+
+    /**
+     * Insert the items and their description and content, which are stored apart in [ItemBody]
+     *
+     * @param htmlToText extracts the indexed text of the contents, see [ItemBody.create]
+     */
+    @Transaction
+    fun insertWithBodies(items: List<Item>, htmlToText: (String) -> String): List<Long> {
+        val ids = insert(items)
+        insertBodies(items.mapIndexed { i, item -> ItemBody.create(ids[i].toInt(), item.description, item.content, htmlToText) })
+
+        return ids
+    }
+
+    /**
+     * Search results, ranked so they are paged with offsets, see [com.readrops.db.queries.ItemsQueryBuilder.buildSearchQuery]
+     */
+    @RawQuery(observedEntities = [Item::class, Feed::class, Folder::class, ItemState::class])
+    fun search(query: SupportSQLiteQuery): DataSource.Factory<Int, ItemWithFeed>
 
     @Query("Select * From Item Where id = :itemId")
     fun select(itemId: Int): Item
@@ -26,8 +57,38 @@ interface ItemDao : BaseDao<Item> {
     @Query("Select case When :guid In (Select guid From Item Inner Join Feed on Item.feed_id = Feed.id and account_id = :accountId) Then 1 else 0 end")
     fun itemExists(guid: String, accountId: Int): Boolean
 
-    @Query("Select case When :remoteId In (Select remoteId from Item) And :feedId In (Select feed_id From Item) Then 1 else 0 end")
-    fun remoteItemExists(remoteId: String, feedId: Int): Boolean
+    @Query("Select Item.guid From Item Inner Join Feed On Item.feed_id = Feed.id Where Item.guid In (:guids) And Feed.account_id = :accountId")
+    fun selectExistingGuids(guids: List<String>, accountId: Int): List<String>
+
+    /**
+     * Select among the given guids the ones already inserted in the account
+     *
+     * @param guids guids to check
+     * @param accountId account of the items
+     * @return the already known guids
+     */
+    fun getExistingGuids(guids: Collection<String>, accountId: Int): Set<String> =
+            guids.chunked(IDS_CHUNK_SIZE)
+                    .flatMapTo(hashSetOf()) { selectExistingGuids(it, accountId) }
+
+    @Query("Select Item.remoteId From Item Inner Join Feed On Item.feed_id = Feed.id Where Item.remoteId In (:remoteIds) And Feed.account_id = :accountId")
+    fun selectExistingRemoteIds(remoteIds: List<String>, accountId: Int): List<String>
+
+    /**
+     * Select among the given remote ids the ones already inserted in the account
+     */
+    fun getExistingRemoteIds(remoteIds: Collection<String>, accountId: Int): Set<String> =
+            remoteIds.chunked(IDS_CHUNK_SIZE)
+                    .flatMapTo(hashSetOf()) { selectExistingRemoteIds(it, accountId) }
+
+    @Query("Select min(pub_date) From Item Inner Join Feed On Item.feed_id = Feed.id Where Feed.account_id = :accountId")
+    fun selectOldestPubDate(accountId: Int): Long?
+
+    /**
+     * Guids of the most recent items of a feed, the ones a feed update lists first
+     */
+    @Query("Select guid From Item Where feed_id = :feedId And guid is not null Order By pub_date DESC Limit :count")
+    fun getLastGuids(feedId: Int, count: Int): List<String>
 
     @Query("Select * From Item Where remoteId = :remoteId And feed_id = :feedId")
     fun selectByRemoteId(remoteId: String, feedId: Int): Item
@@ -35,6 +96,14 @@ interface ItemDao : BaseDao<Item> {
     @Query("Update Item Set read = :read Where id = :itemId")
     fun setReadState(itemId: Int, read: Boolean): Completable
 
+    @Transaction
+    fun setReadState(itemIds: List<Int>, read: Boolean) {
+        itemIds.chunked(IDS_CHUNK_SIZE).forEach { updateReadState(it, read) }
+    }
+
+    @Query("Update Item Set read = :read Where id In (:itemIds)")
+    fun updateReadState(itemIds: List<Int>, read: Boolean)
+
     @Query("Update Item set starred = :starred Where id = :itemId")
     fun setStarState(itemId: Int, starred: Boolean): Completable
 
@@ -47,15 +116,60 @@ interface ItemDao : BaseDao<Item> {
     @Query("Update Item set read_it_later = :readLater Where id = :itemId")
     fun setReadItLater(readLater: Boolean, itemId: Int): Completable
 
-    @Query("Select count(*) From Item Where feed_id = :feedId And read = 0")
-    fun getUnreadCount(feedId: Int): Int
-
-    @RawQuery(observedEntities = [Item::class, ItemState::class])
+    @Query("Select feed_id, count(*) as unread_count From Item Inner Join Feed On Item.feed_id = Feed.id " +
+            "Where Feed.account_id = :accountId And Item.read = 0 Group By feed_id")
+    fun getUnreadCounts(accountId: Int): List<FeedUnreadCount>
+
+    @Query("Select feed_id, count(*) as unread_count From Item Inner Join Feed On Item.feed_id = Feed.id " +
+            "Inner Join ItemState On Item.remoteId = ItemState.remote_id And ItemState.account_id = Feed.account_id " +
+            "Where Feed.account_id = :accountId And ItemState.read = 0 Group By feed_id")
+    fun getSeparateStateUnreadCounts(accountId: Int): List<FeedUnreadCount>
+
+    @Query("Select pub_date From Item Where feed_id = :feedId And pub_date is not null Order By pub_date DESC Limit :count")
+    fun getLastPubDates(feedId: Int, count: Int): List<Long>
+
+    @Query("Select pub_date From Item Where feed_id = :feedId And pub_date is not null Order By pub_date DESC Limit 1 Offset :offset")
+    fun getPubDateAt(feedId: Int, offset: Int): Long?
+
+    /**
+     * Delete at most [limit] read items published before [maxPubDate].
+     * Starred and read it later items are kept, so are the ones whose state change is not synced yet.
+     * @return the number of deleted items
+     */
+    @Query("Delete From Item Where id In (Select id From Item Where feed_id = :feedId And pub_date < :maxPubDate " +
+            "And read = 1 And starred = 0 And read_it_later = 0 " +
+            "And id Not In (Select id From ItemStateChange) Limit :limit)")
+    fun deleteReadItems(feedId: Int, maxPubDate: Long, limit: Int): Int
+
+    /**
+     * Same as [deleteReadItems], with the read and starred states stored in ItemState
+     */
+    @Query("Delete From Item Where id In (Select id From Item Where feed_id = :feedId And pub_date < :maxPubDate " +
+            "And read_it_later = 0 And id Not In (Select id From ItemStateChange) " +
+            "And Not Exists (Select 1 From ItemState Where ItemState.remote_id = Item.remoteId " +
+            "And ItemState.account_id = :accountId And (ItemState.read = 0 Or ItemState.starred = 1)) Limit :limit)")
+    fun deleteSeparateStateReadItems(feedId: Int, accountId: Int, maxPubDate: Long, limit: Int): Int
+
+    @RawQuery(observedEntities = [Item::class, ItemBody::class, ItemState::class])
     fun getItemById(query: SupportSQLiteQuery): LiveData<ItemWithFeed>
 
     @Query("Select Item.guid, Feed.remoteId as feedRemoteId From Item Inner Join Feed On Item.feed_id = Feed.id Where Item.remoteId In (:remoteIds) And account_id = :accountId")
     fun getStarChanges(remoteIds: List<String>, accountId: Int): List<StarItem>
 
-    @Query("Update Item set read = :read, starred = :starred Where remoteId = :remoteId")
-    fun setReadAndStarState(remoteId: String, read: Boolean, starred: Boolean)
+    // unchanged items are skipped, each updated row runs the feed counter triggers
+    @Query("Update Item set read = :read, starred = :starred Where remoteId In (:remoteIds) " +
+            "And (read != :read Or starred != :starred) And feed_id In (Select id From Feed Where account_id = :accountId)")
+    fun updateReadAndStarStates(remoteIds: List<String>, read: Boolean, starred: Boolean, accountId: Int)
+
+    /**
+     * Set the read and star states of the account items matching the remote ones,
+     * with a statement per distinct state instead of one per item
+     */
+    @Transaction
+    fun setReadAndStarStates(items: Collection<Item>, accountId: Int) {
+        items.groupBy({ Pair(it.isRead, it.isStarred) }, { it.remoteId!! })
+                .forEach { (state, remoteIds) ->
+                    remoteIds.chunked(IDS_CHUNK_SIZE).forEach { updateReadAndStarStates(it, state.first, state.second, accountId) }
+                }
+    }
 }
\ No newline at end of file
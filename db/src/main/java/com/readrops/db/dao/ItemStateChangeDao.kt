@@ -4,7 +4,9 @@ import androidx.room.Dao
 import androidx.room.Delete
 import androidx.room.Insert
 import androidx.room.Query
+import androidx.room.Transaction
 import com.readrops.db.entities.Item
+import com.readrops.db.entities.ItemState
 import com.readrops.db.entities.ItemStateChange
 import com.readrops.db.pojo.ItemReadStarState
 import io.reactivex.Completable
@@ -15,14 +17,16 @@ interface ItemStateChangeDao : BaseDao<ItemStateChange> {
     @Insert
     fun insertItemStateChange(itemStateChange: ItemStateChange)
 
+    @Insert
+    fun insertItemStateChanges(itemStateChanges: List<ItemStateChange>)
+
     @Delete
     fun deleteItemStateChange(itemStateChange: ItemStateChange)
 
     @Query("Delete From ItemStateChange Where account_id = :accountId")
     fun resetStateChanges(accountId: Int)
 
-    @Query("Select case When ItemState.remote_id is NULL Or ItemState.read = 1 Then 1 else 0 End read,  " +
-            "case When ItemState.remote_id is NULL Or ItemState.starred = 1 Then 1 else 0 End starred," +
+    @Query("Select ${ItemState.READ_COLUMN} read, ${ItemState.STARRED_COLUMN} starred, " +
             "ItemStateChange.read_change, ItemStateChange.star_change, Item.remoteId " +
             "From ItemStateChange Inner Join Item On ItemStateChange.id = Item.id " +
             "Left Join ItemState On ItemState.remote_id = Item.remoteId Where ItemStateChange.account_id = :accountId")
@@ -92,6 +96,64 @@ interface ItemStateChangeDao : BaseDao<ItemStateChange> {
         it.onComplete()
     }
 
+    /**
+     * Record the read state change of many items in one transaction, like [upsertItemReadStateChange] does for one.
+     * Changes are written by chunks of ids, to stay under SQLite variables limit.
+     */
+    @Transaction
+    fun upsertItemsReadStateChanges(itemIds: List<Int>, read: Boolean, accountId: Int, useSeparateState: Boolean) {
+        for (chunk in itemIds.chunked(MAX_IDS_PER_QUERY)) {
+            // a change cancelling a recorded one is toggled back, existing changes are then left as they are
+            if (useSeparateState)
+                toggleItemsReadStateChanges(chunk, read, accountId)
+            else
+                toggleStandardItemsReadStateChanges(chunk, read, accountId)
+
+            insertItemStateChanges(selectItemIdsWithoutStateChange(chunk).map {
+                ItemStateChange(id = it, readChange = true, accountId = accountId)
+            })
+            deleteEmptyStateChanges(chunk)
+        }
+    }
+
+    @Query("Update ItemStateChange set read_change = Not read_change Where account_id = :accountId And id In " +
+            "(Select Item.id From Item Left Join ItemState On ItemState.remote_id = Item.remoteId And ItemState.account_id = :accountId " +
+            "Where Item.id In (:itemIds) And ${ItemState.READ_COLUMN} != :read)")
+    fun toggleItemsReadStateChanges(itemIds: List<Int>, read: Boolean, accountId: Int)
+
+    @Query("Update ItemStateChange set read_change = Not read_change Where account_id = :accountId And id In " +
+            "(Select id From Item Where id In (:itemIds) And read != :read)")
+    fun toggleStandardItemsReadStateChanges(itemIds: List<Int>, read: Boolean, accountId: Int)
+
+    @Query("Select id From Item Where id In (:itemIds) And id Not In (Select id From ItemStateChange)")
+    fun selectItemIdsWithoutStateChange(itemIds: List<Int>): List<Int>
+
+    @Query("Delete From ItemStateChange Where id In (:itemIds) And read_change = 0 And star_change = 0")
+    fun deleteEmptyStateChanges(itemIds: List<Int>)
+
+    /**
+     * Remove the changes which were pushed to the server, the others are kept for the next sync.
+     * Changes are matched by remote id, by chunks to stay under SQLite variables limit.
+     */
+    @Transaction
+    fun clearPushedStateChanges(readRemoteIds: List<String>, starRemoteIds: List<String>, accountId: Int) {
+        readRemoteIds.chunked(MAX_IDS_PER_QUERY).forEach { clearReadStateChanges(it, accountId) }
+        starRemoteIds.chunked(MAX_IDS_PER_QUERY).forEach { clearStarStateChanges(it, accountId) }
+
+        deleteEmptyAccountStateChanges(accountId)
+    }
+
+    @Query("Update ItemStateChange set read_change = 0 Where account_id = :accountId And id In " +
+            "(Select id From Item Where remoteId In (:remoteIds))")
+    fun clearReadStateChanges(remoteIds: List<String>, accountId: Int)
+
+    @Query("Update ItemStateChange set star_change = 0 Where account_id = :accountId And id In " +
+            "(Select id From Item Where remoteId In (:remoteIds))")
+    fun clearStarStateChanges(remoteIds: List<String>, accountId: Int)
+
+    @Query("Delete From ItemStateChange Where account_id = :accountId And read_change = 0 And star_change = 0")
+    fun deleteEmptyAccountStateChanges(accountId: Int)
+
     @Query("Select * From ItemStateChange Where id = :id")
     fun selectItemStateChange(id: Int): ItemStateChange
 
@@ -116,4 +178,10 @@ interface ItemStateChangeDao : BaseDao<ItemStateChange> {
     @Query("Update ItemStateChange set star_change = :starChange Where id = :id")
     fun updateItemStarStateChange(starChange: Boolean, id: Int)
 
+    companion object {
+        /**
+         * Older SQLite versions are limited to 999 variables per query
+         */
+        const val MAX_IDS_PER_QUERY = 500
+    }
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.readrops.db.dao
 
 import androidx.room.Dao
+import androidx.room.Delete
 import androidx.room.Insert
 import androidx.room.Query
+import androidx.room.Transaction
+import androidx.room.Update
 import com.readrops.db.entities.ItemState
 import io.reactivex.Completable
 
@@ -21,12 +24,81 @@ interface ItemStateDao : BaseDao<ItemState> {
     @Insert
     fun insertItemState(itemState: ItemState)
 
+    @Update
+    fun updateItemStates(itemStates: List<ItemState>)
+
+    @Delete
+    fun deleteItemStates(itemStates: List<ItemState>)
+
+    @Query("Select * From ItemState Where account_id = :accountId")
+    fun selectItemStates(accountId: Int): List<ItemState>
+
+    /**
+     * Make the account states match [itemStates], by only writing the rows which differ.
+     * Each written row updates the feeds counters, most of the states don't change between two syncs.
+     *
+     * @param itemStates every state of the account, one per remote id
+     */
+    @Transaction
+    fun replaceItemStates(accountId: Int, itemStates: Collection<ItemState>) {
+        val existingStates = HashMap<String, ItemState>()
+        val deletedStates = mutableListOf<ItemState>()
+
+        for (itemState in selectItemStates(accountId)) {
+            // duplicated states are removed, the first one is kept and compared to the new state
+            if (existingStates.containsKey(itemState.remoteId)) deletedStates += itemState
+            else existingStates[itemState.remoteId] = itemState
+        }
+
+        val insertedStates = mutableListOf<ItemState>()
+        val updatedStates = mutableListOf<ItemState>()
+
+        for (itemState in itemStates) {
+            val existingState = existingStates.remove(itemState.remoteId)
+
+            if (existingState == null) {
+                insertedStates += itemState
+            } else if (existingState.read != itemState.read || existingState.starred != itemState.starred) {
+                updatedStates += existingState.copy(read = itemState.read, starred = itemState.starred)
+            }
+        }
+
+        deletedStates += existingStates.values
+
+        if (deletedStates.isNotEmpty()) deleteItemStates(deletedStates)
+        if (updatedStates.isNotEmpty()) updateItemStates(updatedStates)
+        if (insertedStates.isNotEmpty()) insertItemStates(insertedStates)
+    }
+
     @Query("Update ItemState set read = :read Where remote_id = :remoteId And account_id = :accountId")
     fun updateItemReadState(read: Boolean, remoteId: String, accountId: Int)
 
     @Query("Update ItemState set starred = :star Where remote_id = :remoteId And account_id = :accountId")
     fun updateItemStarState(star: Boolean, remoteId: String, accountId: Int)
 
+    /**
+     * Set the read state of many items, like [upsertItemReadState] does for one
+     */
+    @Transaction
+    fun upsertItemsReadState(itemIds: List<Int>, read: Boolean, accountId: Int) {
+        for (chunk in itemIds.chunked(ItemStateChangeDao.MAX_IDS_PER_QUERY)) {
+            updateItemsReadState(chunk, read, accountId)
+
+            // the server starred items all have a state, items without one are not starred
+            insertItemStates(selectRemoteIdsWithoutState(chunk, accountId).map {
+                ItemState(read = read, starred = false, remoteId = it, accountId = accountId)
+            })
+        }
+    }
+
+    @Query("Update ItemState set read = :read Where account_id = :accountId And remote_id In " +
+            "(Select remoteId From Item Where id In (:itemIds))")
+    fun updateItemsReadState(itemIds: List<Int>, read: Boolean, accountId: Int)
+
+    @Query("Select remoteId From Item Where id In (:itemIds) And remoteId Not In " +
+            "(Select remote_id From ItemState Where account_id = :accountId)")
+    fun selectRemoteIdsWithoutState(itemIds: List<Int>, accountId: Int): List<String>
+
     @Query("Select case When Exists (Select remote_id, account_id From ItemState Where remote_id = :remoteId And account_id = :accountId) Then 1 else 0 End")
     fun itemStateExists(remoteId: String, accountId: Int): Boolean
 
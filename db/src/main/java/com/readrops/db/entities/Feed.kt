@@ -26,6 +26,11 @@ data class Feed(
         var remoteId: String? = null,
         @ColumnInfo(name = "account_id", index = true) var accountId: Int = 0,
         @ColumnInfo(name = "notification_enabled", defaultValue = "1") var isNotificationEnabled: Boolean = false,
+        @ColumnInfo(name = "sync_interval", defaultValue = "0") var syncInterval: Long = 0, // ms
+        @ColumnInfo(name = "next_sync", defaultValue = "0") var nextSync: Long = 0, // epoch ms
+        @ColumnInfo(name = "failure_count", defaultValue = "0") var failureCount: Int = 0,
+        @ColumnInfo(name = "last_error") var lastError: String? = null,
+        @ColumnInfo(name = "retention_pub_date", defaultValue = "0") var retentionPubDate: Long = 0, // epoch ms, read items published before were deleted
         @Ignore var unreadCount: Int = 0,
         @Ignore var remoteFolderId: String? = null,
 ) : Parcelable
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.readrops.db.entities
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.PrimaryKey
+
+/**
+ * Unread and starred items counts of a feed, maintained by triggers on Item and ItemState.
+ * State counts are the ones of accounts using [ItemState] to store items read and starred states.
+ */
+@Entity(foreignKeys = [ForeignKey(entity = Feed::class, parentColumns = ["id"],
+        childColumns = ["feed_id"], onDelete = ForeignKey.CASCADE)])
+data class FeedCounter(
+        @PrimaryKey @ColumnInfo(name = "feed_id") val feedId: Int,
+        @ColumnInfo(name = "unread_count", defaultValue = "0") val unreadCount: Int = 0,
+        @ColumnInfo(name = "starred_count", defaultValue = "0") val starredCount: Int = 0,
+        @ColumnInfo(name = "state_unread_count", defaultValue = "0") val stateUnreadCount: Int = 0,
+        @ColumnInfo(name = "state_starred_count", defaultValue = "0") val stateStarredCount: Int = 0,
+)
@@ -0,0 +1,38 @@
+package com.readrops.db.entities
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.PrimaryKey
+import com.readrops.db.CompressedText
+
+/**
+ * Description and content of an item, often tens of KB of html.
+ * They are stored apart from [Item] so the items list queries only read small rows,
+ * compressed as they are only decompressed when an item is opened.
+ *
+ * The whole content text is kept uncompressed in [searchText] for the full-text index.
+ */
+@Entity(foreignKeys = [ForeignKey(entity = Item::class, parentColumns = ["id"],
+        childColumns = ["item_id"], onDelete = ForeignKey.CASCADE)])
+data class ItemBody(
+        @PrimaryKey @ColumnInfo(name = "item_id") val itemId: Int,
+        val description: CompressedText? = null,
+        val content: CompressedText? = null,
+        @ColumnInfo(name = "search_text") val searchText: String? = null,
+) {
+
+    companion object {
+
+        /**
+         * @param htmlToText extracts the text of the content, the db module doesn't parse html
+         */
+        @JvmStatic
+        fun create(itemId: Int, description: String?, content: String?, htmlToText: (String) -> String) = ItemBody(
+                itemId,
+                description?.let { CompressedText.compress(it) },
+                content?.let { CompressedText.compress(it) },
+                content?.let { htmlToText(it) },
+        )
+    }
+}
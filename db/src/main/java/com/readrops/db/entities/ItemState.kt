@@ -21,6 +21,18 @@ data class ItemState(
         @PrimaryKey(autoGenerate = true) val id: Int = 0,
         val read: Boolean = false,
         val starred: Boolean = false,
-        @ColumnInfo(name = "remote_id") val remoteId: String,
+        @ColumnInfo(name = "remote_id", index = true) val remoteId: String,
         @ColumnInfo(name = "account_id") val accountId: Int,
-)
\ No newline at end of file
+) {
+
+    companion object {
+
+        /**
+         * Item states selected through a left join on ItemState by the items list,
+         * an item without row is displayed as read and starred. This is a display default only,
+         * stored states of items without row are not starred, see [com.readrops.db.dao.ItemStateDao.upsertItemsReadState].
+         */
+        const val READ_COLUMN = "coalesce(ItemState.read, 1)"
+        const val STARRED_COLUMN = "coalesce(ItemState.starred, 1)"
+    }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.readrops.db.pojo
+
+import androidx.room.ColumnInfo
+
+data class FeedUnreadCount(
+        @ColumnInfo(name = "feed_id") val feedId: Int,
+        @ColumnInfo(name = "unread_count") val unreadCount: Int,
+)
@@ -5,6 +5,7 @@ import androidx.room.ColumnInfo
 import androidx.room.Embedded
 import com.readrops.db.entities.Folder
 import com.readrops.db.entities.Item
+import com.readrops.db.entities.ItemBody
 
 data class ItemWithFeed(
         @Embedded val item: Item,
@@ -15,4 +16,5 @@ data class ItemWithFeed(
         @ColumnInfo(name = "icon_url") val feedIconUrl: String?,
         @ColumnInfo(name = "siteUrl") val websiteUrl: String?,
         @Embedded(prefix = "folder_") val folder: Folder?,
+        @Embedded(prefix = "body_") val body: ItemBody?,
 )
\ No newline at end of file
@@ -5,14 +5,16 @@ import androidx.sqlite.db.SupportSQLiteQueryBuilder
 
 object ItemSelectionQueryBuilder {
 
-    private val COLUMNS = arrayOf("Item.id", "Item.remoteId", "title", "Item.description", "content",
+    private val COLUMNS = arrayOf("Item.id", "Item.remoteId", "title", "ItemBody.item_id as body_item_id",
+            "ItemBody.description as body_description", "ItemBody.content as body_content",
             "link", "pub_date", "image_link", "author", "Item.read", "text_color",
             "background_color", "read_time", "Feed.name", "Feed.id as feedId", "siteUrl",
             "Folder.id as folder_id", "Folder.name as folder_name")
 
     private val SEPARATE_STATE_COLUMNS = arrayOf("case When ItemState.starred = 1 Then 1 else 0 End starred")
 
-    private const val JOIN = "Item Inner Join Feed On Item.feed_id = Feed.id Left Join Folder on Folder.id = Feed.folder_id"
+    private const val JOIN = "Item Inner Join Feed On Item.feed_id = Feed.id Left Join Folder on Folder.id = Feed.folder_id " +
+            "Left Join ItemBody On ItemBody.item_id = Item.id"
 
     private const val SEPARATE_STATE_JOIN = " Left Join ItemState On ItemState.remote_id = Item.remoteId"
 
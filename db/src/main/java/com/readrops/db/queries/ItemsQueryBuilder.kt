@@ -2,6 +2,7 @@ package com.readrops.db.queries
 
 import androidx.sqlite.db.SupportSQLiteQuery
 import androidx.sqlite.db.SupportSQLiteQueryBuilder
+import com.readrops.db.entities.ItemState
 import com.readrops.db.filters.FilterType
 import com.readrops.db.filters.ListSortType
 
@@ -11,8 +12,7 @@ object ItemsQueryBuilder {
             "read_it_later", "Feed.name", "text_color", "background_color", "icon_url", "read_time",
             "Feed.id as feedId", "Feed.account_id", "Folder.id as folder_id", "Folder.name as folder_name")
 
-    private val SEPARATE_STATE_COLUMNS = arrayOf("case When ItemState.remote_id is NULL Or ItemState.read = 1 Then 1 else 0 End read",
-            "case When ItemState.remote_id is NULL or ItemState.starred = 1 Then 1 else 0 End starred")
+    private val SEPARATE_STATE_COLUMNS = arrayOf("${ItemState.READ_COLUMN} read", "${ItemState.STARRED_COLUMN} starred")
 
     private val OTHER_COLUMNS = arrayOf("read", "starred")
 
@@ -21,9 +21,12 @@ object ItemsQueryBuilder {
 
     private const val SEPARATE_STATE_JOIN = "LEFT JOIN ItemState On Item.remoteId = ItemState.remote_id"
 
-    private const val ORDER_BY_ASC = "pub_date DESC"
+    // item id is a tiebreaker between items with the same date, needed by keyset paging
+    private const val ORDER_BY_ASC = "pub_date DESC, Item.id DESC"
 
-    private const val ORDER_BY_DESC = "pub_date ASC"
+    private const val ORDER_BY_DESC = "pub_date ASC, Item.id ASC"
+
+    private val SEARCH_TERMS_SEPARATOR = Regex("[^\\p{L}\\p{N}]+")
 
     @JvmStatic
     fun buildItemsQuery(queryFilters: QueryFilters, separateState: Boolean): SupportSQLiteQuery =
@@ -33,7 +36,24 @@ object ItemsQueryBuilder {
     fun buildItemsQuery(queryFilters: QueryFilters): SupportSQLiteQuery =
             buildQuery(queryFilters, false)
 
-    private fun buildQuery(queryFilters: QueryFilters, separateState: Boolean): SupportSQLiteQuery = with(queryFilters) {
+    /**
+     * Build the query selecting a page of items, see [ItemsPage]
+     */
+    @JvmStatic
+    fun buildItemsPageQuery(queryFilters: QueryFilters, separateState: Boolean, page: ItemsPage): SupportSQLiteQuery =
+            buildQuery(queryFilters, separateState, page)
+
+    /**
+     * Build the query selecting the items matching [QueryFilters.searchQuery],
+     * those matching it in their title first, then in their description, then the newest ones.
+     * Without any word in the search query, all the items are selected like [buildItemsQuery] does.
+     */
+    @JvmStatic
+    fun buildSearchQuery(queryFilters: QueryFilters, separateState: Boolean): SupportSQLiteQuery =
+            buildQuery(queryFilters, separateState, rankTerms = searchTerms(queryFilters.searchQuery))
+
+    private fun buildQuery(queryFilters: QueryFilters, separateState: Boolean, page: ItemsPage? = null,
+                           rankTerms: List<String>? = null): SupportSQLiteQuery = with(queryFilters) {
         if (accountId == 0)
             throw IllegalArgumentException("AccountId must be greater than 0")
 
@@ -45,16 +65,58 @@ object ItemsQueryBuilder {
 
         SupportSQLiteQueryBuilder.builder(selectAllJoin).run {
             columns(columns)
-            selection(buildWhereClause(this@with, separateState), null)
-            orderBy(if (sortType == ListSortType.NEWEST_TO_OLDEST) ORDER_BY_ASC else ORDER_BY_DESC)
+
+            // items preceding the page key are selected in the reverse order
+            val newestFirst = (sortType == ListSortType.NEWEST_TO_OLDEST) != (page?.before == true)
+            selection(buildWhereClause(this@with, separateState) + buildKeyClause(page, newestFirst), null)
+            orderBy(when {
+                !rankTerms.isNullOrEmpty() -> buildRankOrder(rankTerms) + ", " + ORDER_BY_ASC
+                newestFirst -> ORDER_BY_ASC
+                else -> ORDER_BY_DESC
+            })
+
+            if (page != null) limit(page.size.toString())
 
             create()
         }
     }
 
+    private fun buildKeyClause(page: ItemsPage?, newestFirst: Boolean): String {
+        val key = page?.key ?: return ""
+
+        val operator = if (newestFirst) "<" else ">"
+        val idOperator = if (page.includeKey) "$operator=" else operator
+
+        return " And (pub_date $operator ${key.pubDate} Or (pub_date = ${key.pubDate} And Item.id $idOperator ${key.id}))"
+    }
+
+    private fun buildRankOrder(terms: List<String>): String =
+            "(${buildMatchClause(terms, "title")}) * 2 + (${buildMatchClause(terms, "clean_description")}) DESC"
+
+    /**
+     * @param column restrict the match to this column, any indexed column matches otherwise
+     */
+    private fun buildMatchClause(terms: List<String>, column: String? = null): String {
+        val expression = terms.joinToString(" ") { if (column != null) "$column:$it*" else "$it*" }
+        return "Item.id In (Select docid From ItemFts Where ItemFts Match '$expression')"
+    }
+
+    /**
+     * Split the search query into words, lowercased so they can't be taken as FTS operators.
+     * Words are only made of letters and digits, they don't need to be escaped.
+     */
+    private fun searchTerms(searchQuery: String?): List<String> =
+            searchQuery?.split(SEARCH_TERMS_SEPARATOR)
+                    ?.filter { it.isNotEmpty() }
+                    ?.map { it.lowercase() }
+                    ?: listOf()
+
     private fun buildWhereClause(queryFilters: QueryFilters, separateState: Boolean): String = StringBuilder(500).run {
         append("Feed.account_id = ${queryFilters.accountId} And ")
 
+        val terms = searchTerms(queryFilters.searchQuery)
+        if (terms.isNotEmpty()) append("${buildMatchClause(terms)} And ")
+
         if (!queryFilters.showReadItems) {
             if (separateState)
                 append("ItemState.read = 0 And ")
@@ -81,6 +143,26 @@ object ItemsQueryBuilder {
 
 }
 
+/**
+ * Position of an item in the items list, the list being sorted by pub_date then id
+ * @param pubDate item pub_date column value
+ */
+data class ItemKey(val pubDate: Long, val id: Int)
+
+/**
+ * Page of the items list, selected from [key] without offset so its cost doesn't depend on its position
+ * @param key page boundary, the page starts from the first item if null
+ * @param size maximum number of items of the page
+ * @param before if the page is made of the items preceding [key] in the list, they are then sorted the reverse way
+ * @param includeKey if the item at [key] is part of the page
+ */
+class ItemsPage(
+        val key: ItemKey?,
+        val size: Int,
+        val before: Boolean = false,
+        val includeKey: Boolean = false,
+)
+
 class QueryFilters(
         var showReadItems: Boolean = true,
         var filterFeedId: Int = 0,
@@ -88,4 +170,5 @@ class QueryFilters(
         var accountId: Int = 0,
         var filterType: FilterType = FilterType.NO_FILTER,
         var sortType: ListSortType = ListSortType.NEWEST_TO_OLDEST,
+        var searchQuery: String? = null,
 )
\ No newline at end of file